@@ -0,0 +1,399 @@
+package com.github.singond.pdfriend.dev;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.validators.PositiveInteger;
+
+/**
+ * Generates synthetic PDF documents for benchmarks and load tests.
+ * <p>
+ * The generated documents are reproducible: two documents generated
+ * with the same settings (including the seed) are identical.
+ * The structure of the documents can be controlled by the following
+ * settings:
+ * <ul>
+ * <li>the number of pages,</li>
+ * <li>whether the pages have uniform (letter) size or mixed sizes,</li>
+ * <li>whether some of the pages are rotated,</li>
+ * <li>whether the fonts and images are shared by all pages
+ * or unique to each page,</li>
+ * <li>the number of drawing operations and images on each page.</li>
+ * </ul>
+ * The document is built using temporary files, so that documents
+ * with hundreds of thousands of pages can be generated without
+ * a large heap.
+ * <p>
+ * This class can also be run from the command line; run it with
+ * {@code --help} to see the available options.
+ *
+ * @author Singon
+ */
+public final class SyntheticPdfGenerator {
+
+	/** The page sizes to choose from when generating mixed sizes */
+	private static final PDRectangle[] PAGE_SIZES = {
+			PDRectangle.LETTER, PDRectangle.LEGAL, PDRectangle.A3,
+			PDRectangle.A4, PDRectangle.A5, PDRectangle.A6
+	};
+
+	/** The page rotations to choose from when generating rotated pages */
+	private static final int[] ROTATIONS = {0, 90, 180, 270};
+
+	/** The width and height of generated images in pixels */
+	private static final int IMAGE_SIZE = 32;
+
+	/** The amount of main memory to use before switching to a temporary file */
+	private static final long MAX_MAIN_MEMORY = 64L * 1024 * 1024;
+
+	private final int pages;
+	private final boolean mixedSizes;
+	private final boolean rotated;
+	private final boolean uniqueFonts;
+	private final boolean uniqueImages;
+	private final int operations;
+	private final int images;
+	private final long seed;
+
+	private SyntheticPdfGenerator(Builder builder) {
+		this.pages = builder.pages;
+		this.mixedSizes = builder.mixedSizes;
+		this.rotated = builder.rotated;
+		this.uniqueFonts = builder.uniqueFonts;
+		this.uniqueImages = builder.uniqueImages;
+		this.operations = builder.operations;
+		this.images = builder.images;
+		this.seed = builder.seed;
+	}
+
+	/**
+	 * Generates the document and writes it into the given stream.
+	 *
+	 * @param out the stream to write the document into
+	 * @throws IOException if the document cannot be written
+	 */
+	public void generate(OutputStream out) throws IOException {
+		Random random = new Random(seed);
+		try (PDDocument doc = new PDDocument(
+				MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY))) {
+			PDFont sharedFont = PDType1Font.HELVETICA;
+			PDImageXObject sharedImage = images > 0 && !uniqueImages
+					? createImage(doc, random) : null;
+			for (int i = 0; i < pages; i++) {
+				PDFont font = uniqueFonts ? createFont() : sharedFont;
+				PDPage page = createPage(random);
+				doc.addPage(page);
+				try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+					drawContent(content, page.getMediaBox(), i + 1, font, random);
+					for (int j = 0; j < images; j++) {
+						PDImageXObject image = uniqueImages
+								? createImage(doc, random) : sharedImage;
+						drawImage(content, page.getMediaBox(), image, random);
+					}
+				}
+			}
+			// The file identifier is derived from this; avoid using current time
+			doc.setDocumentId(seed);
+			doc.save(out);
+		}
+	}
+
+	/**
+	 * Generates the document and returns its binary data.
+	 *
+	 * @return the generated document as an array of bytes
+	 * @throws IOException if the document cannot be written
+	 */
+	public byte[] generate() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		generate(bytes);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Generates the document and saves it to the given file.
+	 *
+	 * @param file the file to be written
+	 * @throws IOException if the document cannot be written
+	 */
+	public void generate(Path file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			generate(out);
+		}
+	}
+
+	private PDPage createPage(Random random) {
+		PDRectangle size = PDRectangle.LETTER;
+		if (mixedSizes) {
+			size = PAGE_SIZES[random.nextInt(PAGE_SIZES.length)];
+			if (random.nextBoolean()) {
+				// Landscape
+				size = new PDRectangle(size.getHeight(), size.getWidth());
+			}
+		}
+		PDPage page = new PDPage(size);
+		if (rotated) {
+			page.setRotation(ROTATIONS[random.nextInt(ROTATIONS.length)]);
+		}
+		return page;
+	}
+
+	/**
+	 * Creates a new font object which is not shared with any other page.
+	 * <p>
+	 * The font is only a copy of the dictionary of the standard Helvetica
+	 * font, so it contains no embedded font program. It makes the output
+	 * contain many distinct font resources, but does not exercise copying
+	 * or subsetting of embedded fonts.
+	 */
+	private static PDFont createFont() throws IOException {
+		COSDictionary dict = new COSDictionary(PDType1Font.HELVETICA.getCOSObject());
+		return new PDType1Font(dict);
+	}
+
+	/**
+	 * Creates a small image filled with a random pattern.
+	 */
+	private static PDImageXObject createImage(PDDocument doc, Random random)
+			throws IOException {
+		BufferedImage image = new BufferedImage
+				(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_RGB);
+		int base = random.nextInt(0x1000000);
+		for (int x = 0; x < IMAGE_SIZE; x++) {
+			for (int y = 0; y < IMAGE_SIZE; y++) {
+				image.setRGB(x, y, base ^ (x * y * 0x010101));
+			}
+		}
+		return LosslessFactory.createFromImage(doc, image);
+	}
+
+	/**
+	 * Draws the page number and the given number of random shapes
+	 * and lines of text.
+	 */
+	private void drawContent(PDPageContentStream content, PDRectangle box,
+			int pageNumber, PDFont font, Random random) throws IOException {
+		float w = box.getWidth();
+		float h = box.getHeight();
+		content.beginText();
+		content.setFont(font, 24);
+		content.newLineAtOffset(36, h - 60);
+		content.showText("Page " + pageNumber);
+		content.endText();
+
+		for (int i = 0; i < operations; i++) {
+			content.setStrokingColor(random.nextInt(256),
+					random.nextInt(256), random.nextInt(256));
+			switch (random.nextInt(4)) {
+				case 0:
+					content.addRect(random.nextFloat() * w, random.nextFloat() * h,
+							random.nextFloat() * w / 4, random.nextFloat() * h / 4);
+					content.stroke();
+					break;
+				case 1:
+					content.moveTo(random.nextFloat() * w, random.nextFloat() * h);
+					content.lineTo(random.nextFloat() * w, random.nextFloat() * h);
+					content.stroke();
+					break;
+				case 2:
+					content.moveTo(random.nextFloat() * w, random.nextFloat() * h);
+					content.curveTo(random.nextFloat() * w, random.nextFloat() * h,
+							random.nextFloat() * w, random.nextFloat() * h,
+							random.nextFloat() * w, random.nextFloat() * h);
+					content.stroke();
+					break;
+				case 3:
+					content.beginText();
+					content.setFont(font, 6 + random.nextInt(12));
+					content.newLineAtOffset(random.nextFloat() * w, random.nextFloat() * h);
+					content.showText("Lorem ipsum dolor sit amet " + random.nextInt());
+					content.endText();
+					break;
+				default:
+					throw new AssertionError();
+			}
+		}
+	}
+
+	private static void drawImage(PDPageContentStream content, PDRectangle box,
+			PDImageXObject image, Random random) throws IOException {
+		float size = IMAGE_SIZE * (1 + random.nextInt(4));
+		content.drawImage(image,
+				random.nextFloat() * (box.getWidth() - size),
+				random.nextFloat() * (box.getHeight() - size),
+				size, size);
+	}
+
+	@Override
+	public String toString() {
+		return "SyntheticPdfGenerator [pages=" + pages + ", mixedSizes=" + mixedSizes
+				+ ", rotated=" + rotated + ", uniqueFonts=" + uniqueFonts
+				+ ", uniqueImages=" + uniqueImages + ", operations=" + operations
+				+ ", images=" + images + ", seed=" + seed + "]";
+	}
+
+	/**
+	 * Builds instances of {@code SyntheticPdfGenerator}.
+	 * By default, the generated document has one letter-sized page
+	 * with ten drawing operations and no images.
+	 */
+	public static final class Builder {
+		private int pages = 1;
+		private boolean mixedSizes = false;
+		private boolean rotated = false;
+		private boolean uniqueFonts = false;
+		private boolean uniqueImages = false;
+		private int operations = 10;
+		private int images = 0;
+		private long seed = 0;
+
+		/** Sets the number of pages */
+		public Builder setPages(int pages) {
+			if (pages < 1)
+				throw new IllegalArgumentException("The page count must be positive: " + pages);
+			this.pages = pages;
+			return this;
+		}
+
+		/** Sets whether the pages should have various sizes and orientations */
+		public Builder setMixedSizes(boolean mixedSizes) {
+			this.mixedSizes = mixedSizes;
+			return this;
+		}
+
+		/** Sets whether the pages should be randomly rotated */
+		public Builder setRotated(boolean rotated) {
+			this.rotated = rotated;
+			return this;
+		}
+
+		/** Sets whether each page should use its own font object */
+		public Builder setUniqueFonts(boolean uniqueFonts) {
+			this.uniqueFonts = uniqueFonts;
+			return this;
+		}
+
+		/** Sets whether each image should be a separate image object */
+		public Builder setUniqueImages(boolean uniqueImages) {
+			this.uniqueImages = uniqueImages;
+			return this;
+		}
+
+		/** Sets the number of shapes and lines of text on each page */
+		public Builder setOperations(int operations) {
+			if (operations < 0)
+				throw new IllegalArgumentException
+						("The number of operations must not be negative: " + operations);
+			this.operations = operations;
+			return this;
+		}
+
+		/** Sets the number of images on each page */
+		public Builder setImages(int images) {
+			if (images < 0)
+				throw new IllegalArgumentException
+						("The number of images must not be negative: " + images);
+			this.images = images;
+			return this;
+		}
+
+		/** Sets the seed of the random generator */
+		public Builder setSeed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		public SyntheticPdfGenerator build() {
+			return new SyntheticPdfGenerator(this);
+		}
+	}
+
+	/**
+	 * Generates a document with the settings given on the command line.
+	 *
+	 * @param args the command-line arguments
+	 * @throws IOException if the document cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		Arguments arguments = new Arguments();
+		JCommander jc = JCommander.newBuilder()
+				.addObject(arguments)
+				.programName(SyntheticPdfGenerator.class.getSimpleName())
+				.build();
+		jc.parse(args);
+		if (arguments.help) {
+			jc.usage();
+			return;
+		}
+
+		SyntheticPdfGenerator generator = new Builder()
+				.setPages(arguments.pages)
+				.setMixedSizes(arguments.mixedSizes)
+				.setRotated(arguments.rotated)
+				.setUniqueFonts(arguments.uniqueFonts)
+				.setUniqueImages(arguments.uniqueImages)
+				.setOperations(arguments.operations)
+				.setImages(arguments.images)
+				.setSeed(arguments.seed)
+				.build();
+		Path output = Paths.get(arguments.output);
+		System.err.println("Generating " + output + " with " + generator);
+		generator.generate(output);
+	}
+
+	/** Command-line arguments of the generator */
+	private static class Arguments {
+		@Parameter(names={"-h", "--help"}, description="Print this help and exit",
+		           help=true)
+		private boolean help = false;
+
+		@Parameter(names={"-o", "--output"}, description="The file to be written",
+		           required=true)
+		private String output;
+
+		@Parameter(names={"-n", "--pages"}, description="Number of pages",
+		           validateWith=PositiveInteger.class)
+		private int pages = 10;
+
+		@Parameter(names={"--mixed-sizes"}, description="Use various page sizes")
+		private boolean mixedSizes = false;
+
+		@Parameter(names={"--rotated"}, description="Rotate the pages randomly")
+		private boolean rotated = false;
+
+		@Parameter(names={"--unique-fonts"}, description="Use a separate font in every page")
+		private boolean uniqueFonts = false;
+
+		@Parameter(names={"--unique-images"}, description="Use a separate image object for every image")
+		private boolean uniqueImages = false;
+
+		@Parameter(names={"--operations"}, description="Number of shapes and lines of text on every page")
+		private int operations = 10;
+
+		@Parameter(names={"--images"}, description="Number of images on every page")
+		private int images = 0;
+
+		@Parameter(names={"--seed"}, description="Seed of the random generator")
+		private long seed = 0;
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.singond.pdfriend;
+
+import java.io.IOException;
+
+import com.github.singond.pdfriend.dev.SyntheticPdfGenerator;
+
+/**
+ * Provides input documents for the benchmarks.
+ *
+ * @author Singon
+ */
+public final class BenchmarkDocuments {
+
+	private BenchmarkDocuments() {
+		throw new AssertionError("This is a non-instantiable class");
+	}
+
+	/**
+	 * Creates a PDF document with the given number of letter-sized pages,
+	 * each of which contains several shapes and lines of text.
+	 *
+	 * @param pages the number of pages
+	 * @return the binary data of the document
+	 * @throws IOException if the document cannot be written
+	 */
+	public static byte[] letterPdf(int pages) throws IOException {
+		return new SyntheticPdfGenerator.Builder()
+				.setPages(pages)
+				.build()
+				.generate();
+	}
+
+	/**
+	 * Creates a PDF document with the given number of pages of various
+	 * sizes and rotations, with a shared image on each page.
+	 *
+	 * @param pages the number of pages
+	 * @return the binary data of the document
+	 * @throws IOException if the document cannot be written
+	 */
+	public static byte[] mixedPdf(int pages) throws IOException {
+		return new SyntheticPdfGenerator.Builder()
+				.setPages(pages)
+				.setMixedSizes(true)
+				.setRotated(true)
+				.setImages(1)
+				.build()
+				.generate();
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.singond.pdfriend.book;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.singond.geometry.plane.Line;
+import com.github.singond.geometry.plane.Point;
+
+/**
+ * Measures folding stacks of sheets.
+ * A stack of the given number of sheets is folded alternately
+ * along the horizontal and vertical axis the given number of times.
+ *
+ * @author Singon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StackBenchmark {
+
+	private static final double WIDTH = 612;
+	private static final double HEIGHT = 792;
+
+	@Param({"1", "16", "256"})
+	private int sheets;
+
+	@Param({"2", "4"})
+	private int folds;
+
+	@Benchmark
+	public Stack foldManipulate() {
+		Stack stack = new Stack(WIDTH, HEIGHT);
+		new Stack.Gather(sheets).manipulate(stack);
+		double width = WIDTH;
+		double height = HEIGHT;
+		for (int i = 0; i < folds; i++) {
+			Line axis;
+			if (i % 2 == 0) {
+				height /= 2;
+				axis = new Line(new Point(0, height), new Point(1, height));
+			} else {
+				width /= 2;
+				axis = new Line(new Point(width, 0), new Point(width, 1));
+			}
+			new Stack.Fold(axis, Stack.Fold.Direction.UNDER).manipulate(stack);
+		}
+		return stack;
+	}
+}
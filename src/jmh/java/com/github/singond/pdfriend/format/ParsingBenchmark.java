@@ -0,0 +1,87 @@
+package com.github.singond.pdfriend.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.singond.pdfriend.BenchmarkDocuments;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.format.process.PDFParser;
+
+/**
+ * Measures parsing PDF documents into virtual documents.
+ *
+ * @author Singon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParsingBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int pages;
+
+	/** Letter-sized pages, or pages of mixed sizes and rotations */
+	@Param({"letter", "mixed"})
+	private String layout;
+
+	private byte[] input;
+	private PDFParser parser;
+
+	@Setup(Level.Trial)
+	public void createInput() throws IOException {
+		input = layout.equals("mixed")
+				? BenchmarkDocuments.mixedPdf(pages)
+				: BenchmarkDocuments.letterPdf(pages);
+	}
+
+	/*
+	 * Each invocation parses a new document, which stays open until
+	 * the parser is closed. A fresh parser for each invocation keeps
+	 * only one document open at a time. Parsing takes milliseconds,
+	 * so the cost of the per-invocation fixtures is negligible.
+	 */
+	@Setup(Level.Invocation)
+	public void openParser() {
+		parser = new PDFParser();
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeParser() throws IOException {
+		parser.close();
+	}
+
+	/** Loads the document; the pages themselves are created lazily. */
+	@Benchmark
+	public VirtualDocument parseDocument() throws ParsingException {
+		return parser.parseDocument(new ByteArrayInputStream(input));
+	}
+
+	/** Loads the document and creates all its pages. */
+	@Benchmark
+	public void parseDocumentAllPages(Blackhole bh) throws ParsingException {
+		VirtualDocument doc = parser.parseDocument(new ByteArrayInputStream(input));
+		for (VirtualPage page : doc) {
+			bh.consume(page);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.singond.pdfriend.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.singond.pdfriend.BenchmarkDocuments;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.format.process.PDFParser;
+import com.github.singond.pdfriend.format.process.PDFRenderer;
+
+/**
+ * Measures rendering virtual documents into PDF documents.
+ *
+ * @author Singon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderingBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int pages;
+
+	@Param({"1", "4"})
+	private int threads;
+
+	private PDFParser parser;
+	private VirtualDocument document;
+	private PDFRenderer renderer;
+
+	@Setup(Level.Trial)
+	public void createInput() throws IOException, ParsingException {
+		parser = new PDFParser();
+		document = parser.parseDocument(new ByteArrayInputStream(
+				BenchmarkDocuments.letterPdf(pages)));
+		// Create the pages now so that only rendering is measured
+		document.getPages().forEach(p -> {});
+		renderer = new PDFRenderer(MemoryUsage.mainMemoryOnly(), threads);
+	}
+
+	@TearDown(Level.Trial)
+	public void closeInput() throws IOException {
+		parser.close();
+	}
+
+	@Benchmark
+	public int render() throws RenderingException, IOException {
+		try (PDDocument doc = renderer.render(document)) {
+			return doc.getNumberOfPages();
+		}
+	}
+}
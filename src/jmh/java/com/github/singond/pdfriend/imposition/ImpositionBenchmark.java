@@ -0,0 +1,115 @@
+package com.github.singond.pdfriend.imposition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.singond.pdfriend.BenchmarkDocuments;
+import com.github.singond.pdfriend.book.BoundBook;
+import com.github.singond.pdfriend.book.LoosePages;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.format.ParsingException;
+import com.github.singond.pdfriend.format.process.PDFParser;
+
+/**
+ * Measures preprocessing and imposing virtual documents.
+ * The grid size is used as the number of rows and columns in n-up
+ * and as the number of folds in codex.
+ *
+ * @author Singon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImpositionBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int pages;
+
+	@Param({"2", "4"})
+	private int grid;
+
+	private PDFParser parser;
+	private VirtualDocument document;
+
+	private Preprocessor.Settings preprocess;
+	private NUp nup;
+	private Codex codex;
+	private Booklet booklet;
+
+	@Setup(Level.Trial)
+	public void createInput() throws IOException, ParsingException {
+		parser = new PDFParser();
+		document = parser.parseDocument(new ByteArrayInputStream(
+				BenchmarkDocuments.letterPdf(pages)));
+		// Create the pages now so that only imposition is measured
+		document.getPages().forEach(p -> {});
+
+		preprocess = Preprocessor.Settings.auto();
+		preprocess.setRotation(Math.PI / 2);
+		CommonSettings common = CommonSettings.auto();
+
+		nup = new NUp().setRows(grid).setCols(grid);
+		nup.acceptPreprocessSettings(preprocess);
+		nup.acceptCommonSettings(common);
+
+		Codex.Builder codexBuilder = Codex.rightBuilder();
+		for (int i = 0; i < grid; i++) {
+			if (i % 2 == 0) {
+				codexBuilder.foldHorizontallyDown();
+			} else {
+				codexBuilder.foldVerticallyDown();
+			}
+		}
+		codexBuilder.acceptPreprocessSettings(preprocess);
+		codexBuilder.acceptCommonSettings(common);
+		codex = codexBuilder.build();
+
+		Booklet.Builder bookletBuilder = new Booklet.Builder();
+		bookletBuilder.acceptPreprocessSettings(preprocess);
+		bookletBuilder.acceptCommonSettings(common);
+		booklet = bookletBuilder.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void closeInput() throws IOException {
+		parser.close();
+	}
+
+	@Benchmark
+	public VirtualDocument preprocessorProcessAll() {
+		return new Preprocessor(document, preprocess).processAll();
+	}
+
+	@Benchmark
+	public LoosePages nupImpose() {
+		return nup.impose(document);
+	}
+
+	@Benchmark
+	public BoundBook codexImpose() {
+		return codex.impose(document);
+	}
+
+	@Benchmark
+	public BoundBook bookletImpose() {
+		return booklet.impose(document);
+	}
+}
@@ -0,0 +1,74 @@
+package com.github.singond.pdfriend.reorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding a combination of document lengths which fills
+ * a given number of pages.
+ * The values are lengths of documents of up to {@code grid} pages,
+ * and the sum is {@code pages}.
+ *
+ * @author Singon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoinChangeBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int pages;
+
+	@Param({"4", "16"})
+	private int grid;
+
+	private CoinChangeSolver solver;
+	private List<Integer> values;
+	private int[] counts;
+
+	@Setup(Level.Trial)
+	public void createInput() {
+		solver = new CoinChangeSolver();
+		Random random = new Random(pages * 31 + grid);
+		values = new ArrayList<>();
+		int total = 0;
+		// Provide more than enough pages so that the sum can be reached
+		while (total < 2 * pages) {
+			int value = 1 + random.nextInt(grid);
+			values.add(value);
+			total += value;
+		}
+		counts = new int[grid + 1];
+		for (int value : values) {
+			counts[value]++;
+		}
+	}
+
+	@Benchmark
+	public List<Integer> combineToSum() {
+		return solver.combineToSum(pages, values);
+	}
+
+	@Benchmark
+	public int[] combineCounts() {
+		return solver.combineCounts(pages, counts);
+	}
+}
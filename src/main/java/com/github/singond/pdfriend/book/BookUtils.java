@@ -1,6 +1,18 @@
 package com.github.singond.pdfriend.book;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.util.WorkerPool;
 
 /**
  * A utility class for the book object model package
@@ -11,6 +23,8 @@ import java.util.Iterator;
  */
 public abstract class BookUtils {
 
+	private static ExtendedLogger logger = Log.logger(BookUtils.class);
+
 	/**
 	 * Wraps a Leaf iterator to iterate through the Leaves' Pages.
 	 * This assumes that each leaf has both recto and verso page set
@@ -45,4 +59,66 @@ public abstract class BookUtils {
 			}
 		};
 	}
+
+	/**
+	 * Renders the given number of output pages into a new virtual document,
+	 * keeping their order.
+	 * If {@link WorkerPool#shouldSplit} the pages, they are rendered
+	 * in parallel in the {@link WorkerPool}. The elements
+	 * being rendered must therefore not be modified until this method
+	 * returns.
+	 *
+	 * @param count the number of output pages
+	 * @param renderer the function to render the output page with the given
+	 *        index, starting from 0
+	 * @return a new document with the rendered pages in the order
+	 *         of their indices
+	 */
+	static VirtualDocument renderPages(int count, IntFunction<VirtualPage> renderer) {
+		VirtualPage[] pages;
+		if (WorkerPool.shouldSplit(count)) {
+			if (logger.isDebugEnabled())
+				logger.debug("book_renderingParallel", count);
+			pages = WorkerPool.invoke(() -> IntStream.range(0, count).parallel()
+					.mapToObj(renderer)
+					.toArray(VirtualPage[]::new));
+		} else {
+			pages = IntStream.range(0, count)
+					.mapToObj(renderer)
+					.toArray(VirtualPage[]::new);
+		}
+		return new VirtualDocument(Arrays.asList(pages));
+	}
+
+	/**
+	 * Renders the given sheets into a new virtual document, each sheet
+	 * as two pages (front side first, back side second).
+	 * If {@link WorkerPool#shouldSplit} the output pages, the sheets
+	 * are rendered in parallel in the {@link WorkerPool}.
+	 * Both sides of a sheet are always rendered by the same thread,
+	 * because rendering a side may compute and store the positions
+	 * of the leaves of the sheet.
+	 *
+	 * @param sheets the sheets to be rendered
+	 * @param flip the orientation of the back side with respect to front
+	 * @return a new document with the sides of the sheets in their order
+	 */
+	static VirtualDocument renderSheets(List<Sheet> sheets, FlipDirection flip) {
+		int count = 2 * sheets.size();
+		Function<Sheet, Stream<VirtualPage>> sides =
+				s -> Stream.of(s.renderFront(), s.renderBack(flip));
+		VirtualPage[] pages;
+		if (WorkerPool.shouldSplit(count)) {
+			if (logger.isDebugEnabled())
+				logger.debug("book_renderingParallel", count);
+			pages = WorkerPool.invoke(() -> sheets.parallelStream()
+					.flatMap(sides)
+					.toArray(VirtualPage[]::new));
+		} else {
+			pages = sheets.stream()
+					.flatMap(sides)
+					.toArray(VirtualPage[]::new);
+		}
+		return new VirtualDocument(Arrays.asList(pages));
+	}
 }
@@ -1,17 +1,34 @@
 package com.github.singond.pdfriend.book;
 
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
 
 /**
  * A bouond book (a codex) consisting of a single volume.
+ * <p>
+ * The book can be given either as a fully built volume, or as a plan
+ * of a volume made of identical signatures together with the pages
+ * to fill it with. In the latter case, the book is rendered directly
+ * from the plan, and the volume is built only if it is requested.
  *
  * @author Singon
  *
  */
 public class BoundBook implements TwoSidedBook {
 
-	/** The sole volume of this book */
-	private final Volume volume;
+	/** The sole volume of this book, or null if it has not been built yet */
+	private Volume volume;
+	/** The provider of the volume, or null if it is already built */
+	private Supplier<Volume> volumeSupplier;
+	/** The plan of the volume, or null if the book is given as a volume */
+	private final ImpositionPlan plan;
+	/** The number of pages to be imposed using the plan */
+	private final int length;
+	/** The pages to be imposed using the plan */
+	private final IntFunction<VirtualPage> pages;
 
 	/**
 	 * Constructs a new {@code BoundBook} object consisting of the given
@@ -21,14 +38,50 @@ public class BoundBook implements TwoSidedBook {
 	public BoundBook(Volume volume) {
 		super();
 		this.volume = volume;
+		this.volumeSupplier = null;
+		this.plan = null;
+		this.length = 0;
+		this.pages = null;
+	}
+
+	/**
+	 * Constructs a new {@code BoundBook} object consisting of a volume
+	 * laid out by the given plan and filled with the given pages.
+	 * @param plan the layout of the volume
+	 * @param length the number of pages in the volume
+	 * @param pages the function to provide the page at the given index,
+	 *        starting from 0
+	 * @param volume the function to build the volume if it is requested
+	 *        by {@link #getVolume}
+	 */
+	public BoundBook(ImpositionPlan plan, int length,
+	                 IntFunction<VirtualPage> pages, Supplier<Volume> volume) {
+		super();
+		if (plan == null)
+			throw new IllegalArgumentException("The imposition plan must not be null");
+		if (pages == null)
+			throw new IllegalArgumentException("The page source must not be null");
+		if (volume == null)
+			throw new IllegalArgumentException("The volume supplier must not be null");
+		this.plan = plan;
+		this.length = length;
+		this.pages = pages;
+		this.volumeSupplier = volume;
 	}
 
-	public Volume getVolume() {
+	public synchronized Volume getVolume() {
+		if (volume == null) {
+			volume = volumeSupplier.get();
+			volumeSupplier = null;
+		}
 		return volume;
 	}
 
 	@Override
 	public VirtualDocument renderTwoSided(FlipDirection flip) {
+		if (plan != null) {
+			return plan.render(length, pages, flip);
+		}
 		Volume.RenderingSettings rs = new Volume.RenderingSettings(flip);
 		return volume.renderDocument(rs);
 	}
@@ -0,0 +1,453 @@
+package com.github.singond.pdfriend.book;
+
+import java.awt.geom.AffineTransform;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.document.PageGeometry;
+import com.github.singond.pdfriend.document.TransformableContents;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+
+/**
+ * A precomputed layout of a volume made of identical signatures.
+ * <p>
+ * A volume built by repeating one signature places the page at a given
+ * position in each signature onto the same side of the same sheet
+ * of that signature, and always in the same position.
+ * This class compiles the layout of a template signature into a table
+ * which maps the index of each page in the signature onto a side of one
+ * of its sheets and the transformation of the page on that side.
+ * Rendering a document of any length using this table is then a matter
+ * of simple arithmetic, and does not require building the signatures,
+ * sheets, leaves and pages of the whole volume.
+ * <p>
+ * The pages of the volume are numbered from 0 in this class.
+ * The {@code n}-th page of the volume is the {@code n % p}-th page of the
+ * {@code n / p}-th signature, where {@code p} is the number of pages in
+ * one signature, and pages of each signature are taken in the order
+ * given by {@link Signature#pages}.
+ * Similarly, the sides of the sheets are numbered from 0, with the front
+ * side of each sheet coming right before its back side, which is also
+ * the order in which they are rendered.
+ * <p>
+ * Instances of this class are immutable. A plan can be written into
+ * a binary stream and read back, so that it can be stored and reused
+ * for all documents imposed with the same settings.
+ *
+ * @author Singon
+ */
+public final class ImpositionPlan {
+
+	/** Identifies the binary format of a plan */
+	private static final int FORMAT_MAGIC = 0x50464950;
+	/** The version of the binary format of a plan */
+	private static final int FORMAT_VERSION = 1;
+	/** The maximum number of pages or sheets accepted when reading a plan */
+	private static final int MAX_READ_LENGTH = 1 << 20;
+
+	/** The number of pages in one signature */
+	private final int pagesPerSignature;
+	/** The widths of the sheets of one signature */
+	private final double[] widths;
+	/** The heights of the sheets of one signature */
+	private final double[] heights;
+	/**
+	 * The index of the first entry of each side in the entry table.
+	 * The entries of side {@code s} occupy the indices from
+	 * {@code sideStart[s]} (inclusive) to {@code sideStart[s+1]} (exclusive).
+	 */
+	private final int[] sideStart;
+	/** For each entry, the index of the page in the signature */
+	private final int[] entryPage;
+	/** For each entry, the position of the page on its side of the sheet */
+	private final AffineTransform[] entryPosition;
+	/** For each page in the signature, the index of the side it lies on */
+	private final int[] pageSide;
+
+	private static ExtendedLogger logger = Log.logger(ImpositionPlan.class);
+
+	private ImpositionPlan(int pagesPerSignature, double[] widths,
+			double[] heights, int[] sideStart, int[] entryPage,
+			AffineTransform[] entryPosition, int[] pageSide) {
+		this.pagesPerSignature = pagesPerSignature;
+		this.widths = widths;
+		this.heights = heights;
+		this.sideStart = sideStart;
+		this.entryPage = entryPage;
+		this.entryPosition = entryPosition;
+		this.pageSide = pageSide;
+	}
+
+	/**
+	 * Compiles the layout of the given signature into a new plan.
+	 * The signature must have its leaf order set and all of its pages
+	 * must be single pages. Their content is ignored, so the signature
+	 * is typically a blank template.
+	 *
+	 * @param template the signature whose layout is to be repeated
+	 * @return a new plan of a volume made of copies of {@code template}
+	 * @throws IllegalArgumentException if the signature is empty or contains
+	 *         pages other than single pages
+	 */
+	public static ImpositionPlan of(Signature template) {
+		// Index the pages of the signature in their order
+		Map<Page, Integer> index = new IdentityHashMap<>();
+		for (Page page : template.pages()) {
+			if (!(page instanceof SinglePage)) {
+				throw new IllegalArgumentException
+						("Only signatures made of single pages can be planned: " + page);
+			}
+			index.put(page, index.size());
+		}
+		int pageCount = index.size();
+		if (pageCount == 0) {
+			throw new IllegalArgumentException("The signature has no pages: " + template);
+		}
+
+		List<Sheet> sheets = template.getSheets();
+		int sheetCount = sheets.size();
+		double[] widths = new double[sheetCount];
+		double[] heights = new double[sheetCount];
+		int[] sideStart = new int[2 * sheetCount + 1];
+		int[] entryPage = new int[pageCount];
+		AffineTransform[] entryPosition = new AffineTransform[pageCount];
+		int[] pageSide = new int[pageCount];
+
+		int entry = 0;
+		int side = 0;
+		for (Sheet sheet : sheets) {
+			widths[side / 2] = sheet.getWidth();
+			heights[side / 2] = sheet.getHeight();
+			List<Leaf> leaves = sheet.getLeaves();
+			// Front side
+			sideStart[side] = entry;
+			for (Leaf leaf : leaves) {
+				entry = addEntry(index, leaf.getFrontPage(), leaf.getFrontPosition(),
+						side, entry, entryPage, entryPosition, pageSide);
+			}
+			side++;
+			// Back side
+			sideStart[side] = entry;
+			for (Leaf leaf : leaves) {
+				entry = addEntry(index, leaf.getBackPage(), leaf.getBackPosition(),
+						side, entry, entryPage, entryPosition, pageSide);
+			}
+			side++;
+		}
+		sideStart[side] = entry;
+		if (entry != pageCount) {
+			throw new IllegalArgumentException
+					("The sheets of the signature do not hold all of its pages: " + template);
+		}
+		return new ImpositionPlan(pageCount, widths, heights,
+				sideStart, entryPage, entryPosition, pageSide);
+	}
+
+	/**
+	 * Records the position of a page on a side of a sheet.
+	 *
+	 * @return the index of the next entry
+	 */
+	private static int addEntry(Map<Page, Integer> index, Page page,
+			AffineTransform position, int side, int entry,
+			int[] entryPage, AffineTransform[] entryPosition, int[] pageSide) {
+		Integer slot = index.get(page);
+		if (slot == null || entry == entryPage.length) {
+			throw new IllegalArgumentException
+					("The page is not in the signature's order: " + page);
+		}
+		entryPage[entry] = slot;
+		entryPosition[entry] = new AffineTransform(position);
+		pageSide[slot] = side;
+		return entry + 1;
+	}
+
+	/**
+	 * Writes this plan into the given output in a binary format
+	 * which can be read by {@link #readFrom}.
+	 *
+	 * @param out the output to write into
+	 * @throws IOException if an error occurs when writing
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(FORMAT_MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(pagesPerSignature);
+		out.writeInt(widths.length);
+		for (int s = 0; s < widths.length; s++) {
+			out.writeDouble(widths[s]);
+			out.writeDouble(heights[s]);
+		}
+		for (int start : sideStart) {
+			out.writeInt(start);
+		}
+		double[] matrix = new double[6];
+		for (int e = 0; e < entryPage.length; e++) {
+			out.writeInt(entryPage[e]);
+			entryPosition[e].getMatrix(matrix);
+			for (double d : matrix) {
+				out.writeDouble(d);
+			}
+		}
+	}
+
+	/**
+	 * Reads a plan written by {@link #writeTo} from the given input.
+	 * The plan is verified to be consistent, so that any plan read
+	 * successfully can be used to render documents.
+	 *
+	 * @param in the input to read from
+	 * @return the plan read from {@code in}
+	 * @throws IOException if an error occurs when reading, or if the data
+	 *         do not represent a valid plan
+	 */
+	public static ImpositionPlan readFrom(DataInput in) throws IOException {
+		if (in.readInt() != FORMAT_MAGIC) {
+			throw new IOException("The data are not an imposition plan");
+		}
+		int version = in.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported version of imposition plan: " + version);
+		}
+		int pageCount = readLength(in, "pages");
+		int sheetCount = readLength(in, "sheets");
+		double[] widths = new double[sheetCount];
+		double[] heights = new double[sheetCount];
+		for (int s = 0; s < sheetCount; s++) {
+			widths[s] = readFinite(in);
+			heights[s] = readFinite(in);
+		}
+
+		// The entries of each side follow those of the previous side
+		int sides = 2 * sheetCount;
+		int[] sideStart = new int[sides + 1];
+		for (int side = 0; side <= sides; side++) {
+			sideStart[side] = in.readInt();
+			int previous = side == 0 ? 0 : sideStart[side - 1];
+			if (sideStart[side] < previous || sideStart[side] > pageCount) {
+				throw new IOException("Invalid start of side " + side + ": " + sideStart[side]);
+			}
+		}
+		if (sideStart[0] != 0 || sideStart[sides] != pageCount) {
+			throw new IOException("The sides do not hold all pages of the plan");
+		}
+
+		// Each page lies in exactly one entry
+		int[] entryPage = new int[pageCount];
+		AffineTransform[] entryPosition = new AffineTransform[pageCount];
+		int[] pageSide = new int[pageCount];
+		boolean[] seen = new boolean[pageCount];
+		double[] matrix = new double[6];
+		for (int side = 0; side < sides; side++) {
+			for (int e = sideStart[side]; e < sideStart[side + 1]; e++) {
+				int page = in.readInt();
+				if (page < 0 || page >= pageCount || seen[page]) {
+					throw new IOException("Invalid page in entry " + e + ": " + page);
+				}
+				seen[page] = true;
+				entryPage[e] = page;
+				pageSide[page] = side;
+				for (int i = 0; i < matrix.length; i++) {
+					matrix[i] = readFinite(in);
+				}
+				entryPosition[e] = new AffineTransform(matrix);
+			}
+		}
+		return new ImpositionPlan(pageCount, widths, heights,
+				sideStart, entryPage, entryPosition, pageSide);
+	}
+
+	/**
+	 * Reads a positive number of elements not exceeding the limit.
+	 */
+	private static int readLength(DataInput in, String what) throws IOException {
+		int length = in.readInt();
+		if (length < 1 || length > MAX_READ_LENGTH) {
+			throw new IOException("Invalid number of " + what + " in plan: " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * Reads a finite number.
+	 */
+	private static double readFinite(DataInput in) throws IOException {
+		double d = in.readDouble();
+		if (Double.isNaN(d) || Double.isInfinite(d)) {
+			throw new IOException("Invalid number in plan: " + d);
+		}
+		return d;
+	}
+
+	/**
+	 * Returns the number of pages in one signature.
+	 *
+	 * @return the number of pages
+	 */
+	public int pagesPerSignature() {
+		return pagesPerSignature;
+	}
+
+	/**
+	 * Returns the number of sheets in one signature.
+	 *
+	 * @return the number of sheets
+	 */
+	public int sheetsPerSignature() {
+		return widths.length;
+	}
+
+	/**
+	 * Returns the number of signatures needed to hold the given number
+	 * of pages.
+	 *
+	 * @param length the number of pages
+	 * @return the number of signatures
+	 */
+	public int signatureCount(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("The number of pages must not be negative: " + length);
+		}
+		return (length + pagesPerSignature - 1) / pagesPerSignature;
+	}
+
+	/**
+	 * Returns the number of output pages (sides of sheets) produced
+	 * by imposing the given number of pages.
+	 *
+	 * @param length the number of pages
+	 * @return the number of output pages
+	 */
+	public int outputLength(int length) {
+		return 2 * widths.length * signatureCount(length);
+	}
+
+	/**
+	 * Returns the index of the output page (side of a sheet) onto which
+	 * the given page of the volume is imposed.
+	 *
+	 * @param page the index of the page in the volume, starting from 0
+	 * @return the index of the output page, starting from 0
+	 */
+	public int outputPageOf(int page) {
+		if (page < 0) {
+			throw new IndexOutOfBoundsException("Page index: " + page);
+		}
+		int signature = page / pagesPerSignature;
+		return signature * 2 * widths.length + pageSide[page % pagesPerSignature];
+	}
+
+	/**
+	 * Returns the position of the given page of the volume on the front
+	 * side of the sheet, or on the back side if the page lies there.
+	 * The back side position does not include the flip of the sheet
+	 * which is applied in rendering.
+	 *
+	 * @param page the index of the page in the volume, starting from 0
+	 * @return a new transformation of the page
+	 */
+	public AffineTransform positionOf(int page) {
+		if (page < 0) {
+			throw new IndexOutOfBoundsException("Page index: " + page);
+		}
+		int slot = page % pagesPerSignature;
+		int side = pageSide[slot];
+		for (int e = sideStart[side]; e < sideStart[side + 1]; e++) {
+			if (entryPage[e] == slot) {
+				return new AffineTransform(entryPosition[e]);
+			}
+		}
+		throw new AssertionError("No entry for page " + slot);
+	}
+
+	/**
+	 * Renders the volume of the given number of pages into a new
+	 * virtual document, each sheet as two pages (front side first,
+	 * back side second).
+	 * <p>
+	 * The output pages are created only when they are read from the
+	 * document, and the source pages are requested only when the output
+	 * page they lie on is created. Positions beyond the given number
+	 * of pages are left blank.
+	 * The output is the same as that of rendering a volume made
+	 * by filling copies of the template signature with the pages.
+	 *
+	 * @param length the number of pages to be imposed
+	 * @param pages the function to provide the page at the given index
+	 *        in the volume, starting from 0
+	 * @param flip the orientation of the back side with respect to front
+	 * @return a new virtual document with the sides of all sheets
+	 */
+	public VirtualDocument render(int length, IntFunction<VirtualPage> pages,
+	                              FlipDirection flip) {
+		if (pages == null) {
+			throw new IllegalArgumentException("The page source must not be null");
+		}
+		if (flip == null) {
+			throw new IllegalArgumentException("The flip direction must not be null");
+		}
+		final int sides = 2 * widths.length;
+		final int outputLength = outputLength(length);
+		logger.info("plan_rendering", length, outputLength);
+
+		// Resolve the final position of each entry for this flip direction
+		final AffineTransform[] positions = new AffineTransform[entryPage.length];
+		for (int side = 0; side < sides; side++) {
+			AffineTransform backside = null;
+			if (side % 2 == 1) {
+				backside = Sheet.backTransform(widths[side / 2], heights[side / 2], flip);
+			}
+			for (int e = sideStart[side]; e < sideStart[side + 1]; e++) {
+				positions[e] = new AffineTransform(entryPosition[e]);
+				if (backside != null) {
+					positions[e].preConcatenate(backside);
+				}
+			}
+		}
+
+		return new VirtualDocument(outputLength, index -> {
+			int side = index % sides;
+			int offset = index / sides * pagesPerSignature;
+			VirtualPage.Builder paper = new VirtualPage.Builder();
+			paper.setWidth(widths[side / 2]);
+			paper.setHeight(heights[side / 2]);
+			for (int e = sideStart[side]; e < sideStart[side + 1]; e++) {
+				int page = offset + entryPage[e];
+				if (page < length) {
+					TransformableContents contents = pages.apply(page).getContents();
+					contents.transform(positions[e]);
+					paper.addContent(contents);
+				}
+			}
+			return paper.build();
+		}, () -> geometry(outputLength), null);
+	}
+
+	/**
+	 * Returns the geometry of the given number of output pages.
+	 */
+	private PageGeometry geometry(int outputLength) {
+		int sides = 2 * widths.length;
+		double[] w = new double[outputLength];
+		double[] h = new double[outputLength];
+		for (int i = 0; i < outputLength; i++) {
+			w[i] = widths[i % sides / 2];
+			h[i] = heights[i % sides / 2];
+		}
+		return new PageGeometry(w, h);
+	}
+
+	@Override
+	public String toString() {
+		return "ImpositionPlan [pages=" + pagesPerSignature
+				+ ", sheets=" + widths.length + "]";
+	}
+}
@@ -1,12 +1,8 @@
 package com.github.singond.pdfriend.book;
 
 import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.apache.commons.collections4.list.SetUniqueList;
-
 /**
  * An area on a Sheet with a specific position and own coordinate system,
  * meant to represent a single layer of a possibly folded stack of Sheets.
@@ -40,7 +36,7 @@ public class Layer {
 	 * A list of all Leaves positioned on this layer, arranged in ascending
 	 * order.
 	 */
-	private final List<Leaf> leaves;
+	private final UniqueList<Leaf> leaves;
 	
 	
 	/**
@@ -60,7 +56,7 @@ public class Layer {
 		sheet = parent;
 		position = pos;
 		orientation = orient;
-		leaves = SetUniqueList.setUniqueList(new LinkedList<Leaf>());
+		leaves = new UniqueList<>();
 	}
 	/**
 	 * A copy constructor.
@@ -95,10 +91,10 @@ public class Layer {
 	}
 
 	/**
-	 * @return A copy of the list of Leaves.
+	 * @return A read-only view of the list of Leaves.
 	 */
 	public List<Leaf> getLeaves() {
-		return new ArrayList<>(leaves);
+		return leaves.view();
 	}
 	
 	/**
@@ -381,6 +381,29 @@ public class Leaf implements BookElement {
 		return newLeaf;
 	}
 
+	/**
+	 * Creates a new blank Leaf in the same position and of the same
+	 * dimensions as this Leaf.
+	 * Unlike {@link #cloneAsTemplate}, this takes over the front and back
+	 * positions already calculated for this Leaf instead of deriving
+	 * them again, which makes it suitable for creating many copies
+	 * of one template.
+	 * @return A new Leaf object with blank pages in the same position.
+	 */
+	Leaf cloneBlank() {
+		Leaf newLeaf = new Leaf(width, height);
+		newLeaf.flipDirection = flipDirection;
+		newLeaf.orientation = orientation;
+		newLeaf.referencePosition = referencePosition;
+		newLeaf.referenceIsFront = referenceIsFront;
+		if (positionValid) {
+			newLeaf.frontPosition = new AffineTransform(frontPosition);
+			newLeaf.backPosition = new AffineTransform(backPosition);
+			newLeaf.positionValid = true;
+		}
+		return newLeaf;
+	}
+
 	@Override
 	public String toString() {
 //		return "Leaf "+recto.getNumber()+"-"+verso.getNumber();
@@ -54,24 +54,17 @@ public class LoosePages implements OneSidedBook, TwoSidedBook {
 	}
 
 	private VirtualDocument renderAllUpright() {
-		VirtualDocument.Builder doc = new VirtualDocument.Builder();
-		for (Page page : pages) {
-			doc.addPage(page.render());
-		}
-		return doc.build();
+		return BookUtils.renderPages(pages.size(), i -> pages.get(i).render());
 	}
 	
 	private VirtualDocument renderWithEvenPagesRotated() {
-		VirtualDocument.Builder doc = new VirtualDocument.Builder();
-		boolean even = false;
-		for (Page page : pages) {
-			if (even) {
-				doc.addPage(page.render(Page.Rotation.UPSIDE_DOWN));
+		return BookUtils.renderPages(pages.size(), i -> {
+			// Pages are numbered from 1, so even pages have odd indices
+			if (i % 2 == 1) {
+				return pages.get(i).render(Page.Rotation.UPSIDE_DOWN);
 			} else {
-				doc.addPage(page.render(Page.Rotation.UPRIGHT));
+				return pages.get(i).render(Page.Rotation.UPRIGHT);
 			}
-			even = !even;
-		}
-		return doc.build();
+		});
 	}
 }
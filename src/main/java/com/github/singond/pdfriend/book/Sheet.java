@@ -1,13 +1,9 @@
 package com.github.singond.pdfriend.book;
 
 import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.apache.commons.collections4.list.SetUniqueList;
-
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.document.TransformableContents;
@@ -28,23 +24,39 @@ public class Sheet implements BookElement {
 	 * A list of all pages positioned on this sheet, arranged in ascending
 	 * order.
 	 */
-	private final List<Leaf> leaves;
+	private final UniqueList<Leaf> leaves;
 
 	private static ExtendedLogger logger = Log.logger(Sheet.class);
 
 	public Sheet(double width, double height) {
 		this.width = width;
 		this.height = height;
-		this.leaves = SetUniqueList.setUniqueList(new LinkedList<Leaf>());
+		this.leaves = new UniqueList<>();
 	}
 
 
+	/**
+	 * Returns the width of this Sheet.
+	 * @return the sheet width
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of this Sheet.
+	 * @return the sheet height
+	 */
+	public double getHeight() {
+		return height;
+	}
+
 	/**
 	 * Provides access to the Leaves in this Sheet.
-	 * @return A shallow copy of the internal list of Leaves.
+	 * @return A read-only view of the Leaves.
 	 */
 	public List<Leaf> getLeaves() {
-		return new ArrayList<>(leaves);
+		return leaves.view();
 	}
 
 	/**
@@ -146,8 +158,8 @@ public class Sheet implements BookElement {
 	 * Calculates the transformation of the back side given the sheet
 	 * dimensions and flip directions.
 	 */
-	private AffineTransform backTransform(double width, double height,
-	                                      FlipDirection flip) {
+	static AffineTransform backTransform(double width, double height,
+	                                     FlipDirection flip) {
 		final AffineTransform backside;
 		switch (flip) {
 			case AROUND_X:
@@ -1,14 +1,10 @@
 package com.github.singond.pdfriend.book;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.list.SetUniqueList;
-
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.document.VirtualDocument;
@@ -22,7 +18,7 @@ import com.github.singond.pdfriend.document.VirtualPage;
 public class Signature implements BookElement {
 
 	/** The sheets comprising this Signature */
-	private final List<Sheet> sheets;
+	private final UniqueList<Sheet> sheets;
 
 	/**
 	 * An object keeping the order of Leaves in this Signature.
@@ -33,16 +29,16 @@ public class Signature implements BookElement {
 	private static ExtendedLogger logger = Log.logger(Signature.class);
 
 	public Signature() {
-		this.sheets = SetUniqueList.setUniqueList(new LinkedList<Sheet>());
+		this.sheets = new UniqueList<>();
 	}
 
 	/**
 	 * Provides access to the sheets in this signature.
 	 *
-	 * @return a shallow copy of the internal list of sheets
+	 * @return a read-only view of the sheets
 	 */
 	public List<Sheet> getSheets() {
-		return new ArrayList<>(sheets);
+		return sheets.view();
 	}
 
 	/**
@@ -55,6 +51,42 @@ public class Signature implements BookElement {
 		return sheets.add(sheet);
 	}
 
+	/**
+	 * Creates a new blank Signature with the same layout as this one.
+	 * The new Signature consists of blank copies of the Sheets and Leaves
+	 * of this Signature in the same positions and with the same leaf order,
+	 * but without any pages bound to them.
+	 * <p>
+	 * The positions of the Leaves are taken over from this Signature,
+	 * so this is a cheap way to create many identical signatures
+	 * from a single template.
+	 *
+	 * @return a new blank copy of this signature
+	 */
+	public Signature cloneBlank() {
+		Signature copy = new Signature();
+		Leaf[] ordered = leafOrder == null ? null : new Leaf[leafOrder.size()];
+		for (Sheet sheet : sheets) {
+			Sheet sheetCopy = sheet.cloneBlank();
+			for (Leaf leaf : sheet.getLeaves()) {
+				Leaf leafCopy = leaf.cloneBlank();
+				sheetCopy.addLeaf(leafCopy);
+				if (ordered != null && leafOrder.hasElement(leaf)) {
+					ordered[leafOrder.indexOf(leaf)] = leafCopy;
+				}
+			}
+			copy.add(sheetCopy);
+		}
+		if (ordered != null) {
+			Order<Leaf> order = new Order<>();
+			for (Leaf leaf : ordered) {
+				order.addNext(leaf);
+			}
+			copy.setLeafOrder(order);
+		}
+		return copy;
+	}
+
 	/**
 	 * Sets the Leaf order to be used when numbering Leaves in this Signature.
 	 *
@@ -67,7 +67,10 @@ public class SinglePage extends Page {
 	 */
 	@Override
 	public VirtualPage render() {
-		return new VirtualPage(getWidth(), getHeight(), source.getContentStatic().get());
+		VirtualPage.Builder page = new VirtualPage.Builder(source);
+		page.setWidth(getWidth());
+		page.setHeight(getHeight());
+		return page.build();
 	}
 
 	/**
@@ -2,8 +2,8 @@ package com.github.singond.pdfriend.book;
 
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -66,8 +66,8 @@ public class Stack {
 	public Stack(double width, double height, boolean initialize) {
 		this.width = width;
 		this.height = height;
-		sheets = new LinkedList<>();
-		layers = new LinkedList<>();
+		sheets = new ArrayList<>();
+		layers = new ArrayList<>();
 		if (initialize) {
 			Sheet s = new Sheet(width, height);
 			sheets.add(s);
@@ -373,8 +373,10 @@ public class Stack {
 					Layer folded = new Layer(l.getSheet(),
 					                         position,
 					                         l.getOrientation().inverse());
-					foldedStack.add(0, folded);
+					foldedStack.add(folded);
 				}
+				// The layers folded last come to the top
+				Collections.reverse(foldedStack);
 				stack.layers.addAll(0, foldedStack);
 			} else {
 				assert false : direction;
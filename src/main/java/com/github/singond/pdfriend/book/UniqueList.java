@@ -0,0 +1,98 @@
+package com.github.singond.pdfriend.book;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A list of book elements in which each element is present at most once.
+ * <p>
+ * The elements are compared by identity, which is the notion of equality
+ * used by all book elements. The list is backed by an array, so appending
+ * an element, checking its presence and accessing an element by its
+ * position all take constant time.
+ * Elements can only be appended; they cannot be inserted, replaced
+ * or removed.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Singon
+ * @param <T> the type of the elements
+ */
+final class UniqueList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** The elements in their order */
+	private final List<T> elements;
+	/** The elements as a set, for checking presence */
+	private final Set<T> members;
+	/** A read-only view of this list */
+	private final List<T> view;
+
+	/**
+	 * Constructs a new empty list.
+	 */
+	UniqueList() {
+		this(10);
+	}
+
+	/**
+	 * Constructs a new empty list with space for the given number
+	 * of elements.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	UniqueList(int capacity) {
+		this.elements = new ArrayList<>(capacity);
+		this.members = Collections.newSetFromMap(new IdentityHashMap<>(capacity));
+		this.view = Collections.unmodifiableList(this);
+	}
+
+	/**
+	 * Appends the given element to the end of this list,
+	 * unless it is already present.
+	 *
+	 * @param element the element to be added
+	 * @return {@code false} if the element is already present in this list
+	 */
+	@Override
+	public boolean add(T element) {
+		if (element == null) {
+			throw new NullPointerException("Book elements must not be null");
+		}
+		if (!members.add(element)) {
+			return false;
+		}
+		elements.add(element);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return members.contains(o);
+	}
+
+	/**
+	 * Returns a read-only view of this list.
+	 * The view reflects any later changes to this list.
+	 *
+	 * @return an unmodifiable view of this list
+	 */
+	List<T> view() {
+		return view;
+	}
+}
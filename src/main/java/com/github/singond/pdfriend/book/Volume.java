@@ -1,11 +1,9 @@
 package com.github.singond.pdfriend.book;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.apache.commons.collections4.list.SetUniqueList;
-
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.document.VirtualDocument;
@@ -21,12 +19,12 @@ public class Volume implements BookElement {
 	/**
 	 * Signatures sorted in their proper order in the finished volume.
 	 */
-	private List<Signature> signatures;
+	private final UniqueList<Signature> signatures;
 	
 	private static ExtendedLogger logger = Log.logger(Volume.class);
 	
 	public Volume() {
-		signatures = SetUniqueList.setUniqueList(new LinkedList<Signature>());
+		signatures = new UniqueList<>();
 	}
 	
 	/**
@@ -111,15 +109,21 @@ public class Volume implements BookElement {
 	
 	/**
 	 * Renders this Volume as a new VirtualDocument.
+	 * Each Sheet is rendered as two pages (front side first, back side
+	 * second) in the order of the Signatures.
+	 * The Sheets are independent of each other, so long volumes are
+	 * rendered in parallel.
 	 * @return a new VirtualDocument instance
 	 */
 	public VirtualDocument renderDocument(RenderingSettings settings) {
 		logger.info("volume_rendering", this);
-		VirtualDocument.Builder document = new VirtualDocument.Builder();
+		final List<Sheet> sheets = new ArrayList<>();
 		for (Signature s : signatures) {
-			s.renderAllSheets(document, settings);
+			if (logger.isDebugEnabled())
+				logger.debug("signature_rendering", s);
+			sheets.addAll(s.getSheets());
 		}
-		return document.build();
+		return BookUtils.renderSheets(sheets, settings.getFlip());
 	}
 	
 	/**
@@ -16,13 +16,17 @@ import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.Out;
 import com.github.singond.pdfriend.Util;
 import com.github.singond.pdfriend.Version;
+import com.github.singond.pdfriend.format.ParsingManager;
+import com.github.singond.pdfriend.format.RenderingManager;
 import com.github.singond.pdfriend.imposition.ImposeCommand;
+import com.github.singond.pdfriend.imposition.PlanCache;
 import com.github.singond.pdfriend.imposition.SimpleTransformCommand;
 import com.github.singond.pdfriend.modules.Module;
 import com.github.singond.pdfriend.modules.ModuleException;
 import com.github.singond.pdfriend.pipe.Pipe;
 import com.github.singond.pdfriend.pipe.PipeException;
 import com.github.singond.pdfriend.reorder.ReorderCommand;
+import com.github.singond.pdfriend.util.WorkerPool;
 
 /**
  * The root of the command-line interface.
@@ -101,6 +105,12 @@ public class Console {
 		}
 		// Set verbosity level as early as possible
 		setVerbosity(global.quiet(), global.verbose(), global.debug());
+		// Limit the parallel operations in modules to the given number of threads
+		WorkerPool.setThreads(global.threads());
+		if (global.planCache() != null) {
+			PlanCache.setDefault(new PlanCache(
+					global.planCache().toPath(), PlanCache.DEFAULT_CAPACITY));
+		}
 		
 		Pipe pipe = new Pipe();
 		try {
@@ -142,8 +152,10 @@ public class Console {
 		/* Invoke modules */
 		
 		try {
-			pipe.setInput(inputFiles.getInput());
-			pipe.setOutput(outputFile.getOutput());
+			pipe.setInput(inputFiles.getInput(),
+					new ParsingManager(global.memoryUsage(), global.threads()));
+			pipe.setOutput(outputFile.getOutput(),
+					new RenderingManager(global.memoryUsage(), global.threads()));
 			pipe.execute();
 			return ExitStatus.SUCCESS;
 		} catch (ModuleException e) {
@@ -1,6 +1,10 @@
 package com.github.singond.pdfriend.cli;
 
+import java.io.File;
+
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.validators.PositiveInteger;
+import com.github.singond.pdfriend.format.MemoryUsage;
 
 public class GlobalOptions {
 	/** Print version info and exit */
@@ -23,6 +27,29 @@ public class GlobalOptions {
 	@Parameter(names={"-q", "--quiet"}, description="Be less verbose than normal, display only warnings", order=6)
 	private boolean quiet = false;
 
+	/** Where to keep the data of input and output documents */
+	@Parameter(names={"--memory"},
+	           description="Where to keep the data of input and output files: \"memory\" (default), "
+	                     + "\"file\" (temporary files) or the maximum amount of main memory "
+	                     + "to be used before switching to temporary files (eg. \"512M\")",
+	           converter=MemoryUsageConverter.class,
+	           order=7)
+	private MemoryUsage memoryUsage = MemoryUsage.mainMemoryOnly();
+
+	/** Maximum number of threads to be used */
+	@Parameter(names={"--threads"},
+	           description="Maximum number of threads to be used when processing the files",
+	           validateWith=PositiveInteger.class,
+	           order=8)
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/** Directory to cache imposition plans in */
+	@Parameter(names={"--plan-cache"},
+	           description="Directory to store the layouts of imposed documents in "
+	                     + "for reuse by later runs with the same settings",
+	           order=9)
+	private File planCache = null;
+
 	/**
 	 * Print version info and exit.
 	 * @return true if this flag has been set
@@ -62,4 +89,28 @@ public class GlobalOptions {
 	public boolean quiet() {
 		return quiet;
 	}
+
+	/**
+	 * Where to keep the data of input and output documents.
+	 * @return the memory usage setting
+	 */
+	public MemoryUsage memoryUsage() {
+		return memoryUsage;
+	}
+
+	/**
+	 * Maximum number of threads to be used.
+	 * @return the number of threads; this is always a positive number
+	 */
+	public int threads() {
+		return threads;
+	}
+
+	/**
+	 * Directory to cache imposition plans in.
+	 * @return the directory, or null if plans are not to be cached
+	 */
+	public File planCache() {
+		return planCache;
+	}
 }
@@ -0,0 +1,56 @@
+package com.github.singond.pdfriend.cli;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+import com.github.singond.pdfriend.format.MemoryUsage;
+
+/**
+ * Parses a string as the memory usage setting for input documents.
+ * The accepted values are {@code memory} (keep everything in main
+ * memory), {@code file} (keep everything in temporary files)
+ * or an amount of bytes to be kept in main memory, optionally followed
+ * by one of the suffixes {@code k}, {@code M} or {@code G}.
+ *
+ * @author Singon
+ */
+public class MemoryUsageConverter implements IStringConverter<MemoryUsage> {
+
+	private static final Pattern SIZE = Pattern.compile("(\\d+)\\s*([kKmMgG]?)[bB]?");
+
+	/** The binary logarithm of the number of bytes in each unit */
+	private static final Map<String, Integer> UNIT_SHIFTS = new HashMap<>();
+	static {
+		UNIT_SHIFTS.put("", 0);
+		UNIT_SHIFTS.put("K", 10);
+		UNIT_SHIFTS.put("M", 20);
+		UNIT_SHIFTS.put("G", 30);
+	}
+
+	@Override
+	public MemoryUsage convert(String arg) {
+		if ("memory".equals(arg)) {
+			return MemoryUsage.mainMemoryOnly();
+		} else if ("file".equals(arg)) {
+			return MemoryUsage.tempFileOnly();
+		}
+
+		Matcher m = SIZE.matcher(arg.trim());
+		if (!m.matches()) {
+			throw new ParameterException("Unknown memory usage setting: '" + arg
+					+ "'. Use 'memory', 'file' or an amount of memory like '512M'");
+		}
+		long bytes;
+		try {
+			long amount = Long.parseLong(m.group(1));
+			bytes = Math.multiplyExact(amount, 1L << UNIT_SHIFTS.get(m.group(2).toUpperCase()));
+		} catch (NumberFormatException | ArithmeticException e) {
+			throw new ParameterException("Amount of memory is out of range: " + arg);
+		}
+		return MemoryUsage.mixed(bytes);
+	}
+}
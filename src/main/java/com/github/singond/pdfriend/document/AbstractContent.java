@@ -36,6 +36,16 @@ public abstract class AbstractContent implements Content {
 		return new AffineTransform(position);
 	}
 
+	@Override
+	public final void getPosition(double[] matrix, int offset) {
+		matrix[offset]     = position.getScaleX();
+		matrix[offset + 1] = position.getShearY();
+		matrix[offset + 2] = position.getShearX();
+		matrix[offset + 3] = position.getScaleY();
+		matrix[offset + 4] = position.getTranslateX();
+		matrix[offset + 5] = position.getTranslateY();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
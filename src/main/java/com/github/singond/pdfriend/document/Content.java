@@ -12,6 +12,26 @@ public interface Content {
 	 */
 	AffineTransform getPosition();
 
+	/**
+	 * Writes the position of this piece of content into the given array.
+	 * The six entries of the transformation matrix are written starting
+	 * at {@code offset} in the order used by {@link AffineTransform#getMatrix}.
+	 * Unlike {@link #getPosition()}, this does not create a copy of the
+	 * transformation matrix.
+	 *
+	 * @param matrix the array to write the position into
+	 * @param offset the index in {@code matrix} of the first entry
+	 */
+	default void getPosition(double[] matrix, int offset) {
+		AffineTransform position = getPosition();
+		matrix[offset]     = position.getScaleX();
+		matrix[offset + 1] = position.getShearY();
+		matrix[offset + 2] = position.getShearX();
+		matrix[offset + 3] = position.getScaleY();
+		matrix[offset + 4] = position.getTranslateX();
+		matrix[offset + 5] = position.getTranslateY();
+	}
+
 	/**
 	 * Returns a piece of content which is identical to this instance
 	 * transformed using the given transformation, keeping the original
@@ -0,0 +1,178 @@
+package com.github.singond.pdfriend.document;
+
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A table of content elements and their positions, which allows moving
+ * all the elements without creating any objects.
+ * <p>
+ * The positions are kept in a single array of primitive values, where
+ * each element occupies six consecutive entries holding its transformation
+ * matrix in the order used by {@link AffineTransform#getMatrix}:
+ * <pre>m00, m10, m01, m11, m02, m12</pre>
+ * Transformations are not applied to the elements immediately. Instead,
+ * they are composed into a single pending transformation, which is applied
+ * to each element only when its position is needed, that is, when
+ * the table is converted back into content by {@link #get(int)}
+ * or {@link #toList}.
+ * This way, transforming the table several times costs one matrix product
+ * per element in total, rather than one per element and transformation.
+ * New content elements are created only in the conversion, and if
+ * the table has not been transformed at all, the original content elements
+ * are returned.
+ * <p>
+ * The elements and their original positions never change once the table
+ * has been constructed, so they can be shared by several tables
+ * with different pending transformations. A copy of the table made
+ * by {@link #copy} costs the same regardless of the number of elements.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Singon
+ */
+final class ContentTable {
+
+	/** The number of entries occupied by one matrix */
+	private static final int MATRIX = 6;
+
+	/** The content elements in their original position */
+	private final Content[] items;
+	/** The original positions of the content elements, packed */
+	private final double[] matrices;
+	/**
+	 * The transformation which has yet to be applied to all elements,
+	 * or null if there is none.
+	 */
+	private AffineTransform pending;
+
+	/**
+	 * Constructs a table of the given elements and their positions.
+	 * The arrays are used directly, without copying.
+	 */
+	private ContentTable(Content[] items, double[] matrices, AffineTransform pending) {
+		this.items = items;
+		this.matrices = matrices;
+		this.pending = pending;
+	}
+
+	/**
+	 * Constructs a new table of the given content elements
+	 * in their current positions.
+	 *
+	 * @param contents the content elements
+	 * @return a new table of {@code contents}
+	 */
+	static ContentTable of(Collection<Content> contents) {
+		Content[] items = contents.toArray(new Content[contents.size()]);
+		double[] matrices = new double[items.length * MATRIX];
+		for (int i = 0; i < items.length; i++) {
+			items[i].getPosition(matrices, i * MATRIX);
+		}
+		return new ContentTable(items, matrices, null);
+	}
+
+	/**
+	 * Returns a new table of the same content elements in the same
+	 * positions as this table.
+	 * Transforming either of the tables does not affect the other one.
+	 *
+	 * @return a copy of this table
+	 */
+	ContentTable copy() {
+		AffineTransform transform = pending == null ? null : new AffineTransform(pending);
+		return new ContentTable(items, matrices, transform);
+	}
+
+	/**
+	 * Transforms all content elements using the given transformation.
+	 * If the original transformation matrix of an element is T, the new
+	 * matrix is the product of {@code transform} and T:
+	 * <pre>[T2] = [trans] x [T]</pre>
+	 * This gives the same result as {@link AffineTransform#preConcatenate}.
+	 * <p>
+	 * The transformation is only recorded at this point and is applied
+	 * to the elements together with any subsequent transformations
+	 * when their positions are needed.
+	 *
+	 * @param transform the transformation to be applied
+	 */
+	void transform(AffineTransform transform) {
+		if (transform.isIdentity()) {
+			return;
+		} else if (pending == null) {
+			pending = new AffineTransform(transform);
+		} else {
+			pending.preConcatenate(transform);
+		}
+	}
+
+	/**
+	 * Returns the content element at the given index in its current
+	 * position.
+	 *
+	 * @param index the index of the element, starting from 0
+	 * @return the element in its current position
+	 */
+	Content get(int index) {
+		if (index < 0 || index >= items.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + items.length);
+		}
+		if (pending == null) {
+			return items[index];
+		}
+		final AffineTransform a = pending;
+		final double a00 = a.getScaleX();
+		final double a10 = a.getShearY();
+		final double a01 = a.getShearX();
+		final double a11 = a.getScaleY();
+		final double a02 = a.getTranslateX();
+		final double a12 = a.getTranslateY();
+		final double[] m = matrices;
+		final int i = index * MATRIX;
+		double m00 = m[i], m10 = m[i+1];
+		double m01 = m[i+2], m11 = m[i+3];
+		double m02 = m[i+4], m12 = m[i+5];
+		return items[index].atPosition(new AffineTransform(
+				m00 * a00 + m10 * a01,
+				m00 * a10 + m10 * a11,
+				m01 * a00 + m11 * a01,
+				m01 * a10 + m11 * a11,
+				a02 + (m02 * a00 + m12 * a01),
+				a12 + (m02 * a10 + m12 * a11)));
+	}
+
+	/**
+	 * Returns all content elements in their current positions.
+	 *
+	 * @return a new list of the content elements
+	 */
+	List<Content> toList() {
+		List<Content> result = new ArrayList<>(items.length);
+		addTo(result);
+		return result;
+	}
+
+	/**
+	 * Adds all content elements in their current positions to the given
+	 * collection.
+	 *
+	 * @param target the collection to add the elements to
+	 */
+	void addTo(Collection<Content> target) {
+		for (int i = 0; i < items.length; i++) {
+			target.add(get(i));
+		}
+	}
+
+	/**
+	 * Returns the number of content elements in this table.
+	 *
+	 * @return the number of content elements
+	 */
+	int size() {
+		return items.length;
+	}
+}
@@ -3,7 +3,6 @@ package com.github.singond.pdfriend.document;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Creates {@code Contents} objects.
@@ -23,22 +22,15 @@ public final class ContentsFactory {
 	 * @return a new instance of Contents
 	 */
 	public static TransformableContents merge(Collection<Contents> contents) {
-		List<MovableContent> all = new ArrayList<>();
+		List<ContentTable> all = new ArrayList<>(contents.size());
 		for (Contents c : contents) {
-			all.addAll(makeMovable(c));
+			// Bypass new object creation if possible
+			if (c instanceof ContentsMovable) {
+				all.addAll(((ContentsMovable) c).getTables());
+			} else {
+				all.add(ContentTable.of(c.get()));
+			}
 		}
 		return new ContentsMovable(all);
 	}
-
-	private static List<MovableContent> makeMovable(Contents contents) {
-		// Bypass new object creation if possible
-		if (contents instanceof ContentsMovable) {
-			return ((ContentsMovable) contents).getMovable();
-		}
-
-		// Otherwise do it the normal way
-		return contents.get().stream()
-		               .map(MovableContent::new)
-		               .collect(Collectors.toList());
-	}
 }
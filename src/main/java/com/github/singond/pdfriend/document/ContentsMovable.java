@@ -2,6 +2,7 @@ package com.github.singond.pdfriend.document;
 
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,45 +15,74 @@ import java.util.List;
  * like modifying their underlying data, may or may not result in changes
  * in the page, depending on the implementation of {@code Content}.
  * <p>
+ * The positions of the content elements are kept in one or more
+ * {@link ContentTable}s, so that transforming the contents does not create
+ * any objects. The transformations are composed lazily and applied
+ * to the content elements only once, when they are obtained by {@link #get}.
+ * Merging contents only collects the tables, so nested transformations
+ * of merged contents do not revisit every content element either.
+ * <p>
  * This class is not thread-safe.
  * @author Singon
  *
  */
 class ContentsMovable implements TransformableContents {
 
-	private final List<MovableContent> contents;
+	private final List<ContentTable> tables;
+
+	/**
+	 * Constructs a new instance backed by the given table of content.
+	 * @param contents all content of the page with their positions;
+	 *        the table is used directly, without copying
+	 */
+	ContentsMovable(ContentTable contents) {
+		this.tables = Collections.singletonList(contents);
+	}
 
 	/**
-	 * Constructs a new instance by shallowly copying the given content.
-	 * @param contents all content of the page, wrapped in an object with
-	 *        mutable position
+	 * Constructs a new instance backed by the given tables of content,
+	 * whose elements follow each other in the order of the tables.
+	 * @param tables all content of the page with their positions;
+	 *        the tables are used directly, without copying
 	 */
-	ContentsMovable(List<MovableContent> contents) {
-		this.contents = new ArrayList<>(contents);
+	ContentsMovable(List<ContentTable> tables) {
+		this.tables = tables;
 	}
 
 	@Override
 	public List<Content> get() {
-		List<Content> result = new ArrayList<>(contents.size());
-		for (MovableContent cm : contents) {
-			result.add(cm.transformed());
+		if (tables.size() == 1) {
+			return tables.get(0).toList();
+		}
+		int size = 0;
+		for (ContentTable t : tables) {
+			size += t.size();
+		}
+		List<Content> result = new ArrayList<>(size);
+		for (ContentTable t : tables) {
+			t.addTo(result);
 		}
 		return result;
 	}
 
 	@Override
 	public void transform(AffineTransform transform) {
-		for (MovableContent cm : contents) {
-			cm.getTransform().preConcatenate(transform);
+		for (ContentTable t : tables) {
+			t.transform(transform);
 		}
 	}
 
-	List<MovableContent> getMovable() {
-		return contents;
+	List<ContentTable> getTables() {
+		return tables;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return contents.isEmpty();
+		for (ContentTable t : tables) {
+			if (t.size() > 0) {
+				return false;
+			}
+		}
+		return true;
 	}
 }
@@ -0,0 +1,67 @@
+package com.github.singond.pdfriend.document;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * An unmodifiable list of pages whose elements are created on demand.
+ * Only the number of pages is known at construction; each page is
+ * obtained from the page factory when it is accessed for the first time
+ * and then kept for any subsequent access.
+ * <p>
+ * As any page sequence, this list can be joined with other sequences,
+ * sliced and reversed without creating its pages.
+ * <p>
+ * This class is thread-safe. Different pages can be created by several
+ * threads at the same time; if the same page is requested concurrently
+ * before it is created, it may be created more than once, but only one
+ * of these instances is kept and returned to all callers.
+ *
+ * @author Singon
+ */
+final class LazyPageList extends PageSequence {
+
+	/** Creates the page at the given index (numbered from 0) */
+	private final IntFunction<VirtualPage> pageFactory;
+
+	/** The pages created so far; the remaining elements are null */
+	private final AtomicReferenceArray<VirtualPage> pages;
+
+	/**
+	 * Constructs a new list of the given length, which will create
+	 * its elements using the given function.
+	 *
+	 * @param length the number of pages in the list
+	 * @param pageFactory the function to create the page at the given
+	 *        index, numbered from 0
+	 */
+	LazyPageList(int length, IntFunction<VirtualPage> pageFactory) {
+		if (length < 0) {
+			throw new IllegalArgumentException("The number of pages must not be negative: " + length);
+		}
+		this.pageFactory = pageFactory;
+		this.pages = new AtomicReferenceArray<>(length);
+	}
+
+	@Override
+	public VirtualPage get(int index) {
+		VirtualPage page = pages.get(index);
+		if (page == null) {
+			VirtualPage created = pageFactory.apply(index);
+			if (created == null) {
+				throw new NullPointerException("The page factory returned null for page index " + index);
+			}
+			if (pages.compareAndSet(index, null, created)) {
+				page = created;
+			} else {
+				page = pages.get(index);
+			}
+		}
+		return page;
+	}
+
+	@Override
+	public int size() {
+		return pages.length();
+	}
+}
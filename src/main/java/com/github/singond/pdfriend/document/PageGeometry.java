@@ -0,0 +1,173 @@
+package com.github.singond.pdfriend.document;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The geometry of all pages in a document, stored in a compact table.
+ * For each page, the table holds its width and height, as they appear
+ * when the page is displayed.
+ * <p>
+ * This table can be obtained without reading the content of the pages,
+ * which allows sizing decisions to be made cheaply even for very long
+ * documents.
+ * Pages are indexed from 0 in this table.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @author Singon
+ */
+public final class PageGeometry {
+
+	/** The effective page widths */
+	private final double[] widths;
+	/** The effective page heights */
+	private final double[] heights;
+
+	/**
+	 * Constructs a new page geometry table.
+	 * Both arrays must have the same length, which is the number
+	 * of pages in the table.
+	 * The arrays are copied.
+	 *
+	 * @param widths the widths of the pages as they appear when displayed
+	 * @param heights the heights of the pages as they appear when displayed
+	 */
+	public PageGeometry(double[] widths, double[] heights) {
+		if (widths.length != heights.length) {
+			throw new IllegalArgumentException
+					("The page geometry arrays must have the same length: "
+					+ widths.length + ", " + heights.length);
+		}
+		this.widths = widths.clone();
+		this.heights = heights.clone();
+	}
+
+	/**
+	 * Collects the geometry of the given pages.
+	 *
+	 * @param pages the pages whose geometry is to be read
+	 * @return a new geometry table of {@code pages}
+	 */
+	public static PageGeometry of(List<VirtualPage> pages) {
+		int length = pages.size();
+		double[] widths = new double[length];
+		double[] heights = new double[length];
+		int i = 0;
+		for (VirtualPage page : pages) {
+			widths[i] = page.getWidth();
+			heights[i] = page.getHeight();
+			i++;
+		}
+		return new PageGeometry(widths, heights);
+	}
+
+	/**
+	 * Joins several geometry tables into one in the order they are given.
+	 *
+	 * @param geometries the tables to be joined
+	 * @return a new geometry table containing the entries of all
+	 *         the given tables
+	 */
+	public static PageGeometry concatenate(List<PageGeometry> geometries) {
+		int length = 0;
+		for (PageGeometry g : geometries) {
+			length += g.size();
+		}
+		double[] widths = new double[length];
+		double[] heights = new double[length];
+		int offset = 0;
+		for (PageGeometry g : geometries) {
+			int size = g.size();
+			System.arraycopy(g.widths, 0, widths, offset, size);
+			System.arraycopy(g.heights, 0, heights, offset, size);
+			offset += size;
+		}
+		return new PageGeometry(widths, heights);
+	}
+
+	/**
+	 * Returns the geometry of a range of pages in this table.
+	 *
+	 * @param from the index of the first page (inclusive), starting from 0
+	 * @param to the index of the last page (exclusive), starting from 0
+	 * @return a new geometry table containing the entries between
+	 *         {@code from} and {@code to}
+	 */
+	public PageGeometry slice(int from, int to) {
+		return new PageGeometry(Arrays.copyOfRange(widths, from, to),
+				Arrays.copyOfRange(heights, from, to));
+	}
+
+	/**
+	 * Returns the geometry of the pages of this table in reverse order.
+	 *
+	 * @return a new geometry table containing the entries of this table
+	 *         in reverse order
+	 */
+	public PageGeometry reverse() {
+		int length = widths.length;
+		double[] w = new double[length];
+		double[] h = new double[length];
+		for (int i = 0; i < length; i++) {
+			w[i] = widths[length - 1 - i];
+			h[i] = heights[length - 1 - i];
+		}
+		return new PageGeometry(w, h);
+	}
+
+	/**
+	 * Returns the number of pages in this table.
+	 *
+	 * @return the number of pages
+	 */
+	public int size() {
+		return widths.length;
+	}
+
+	/**
+	 * Returns the width of the page as it appears when displayed.
+	 *
+	 * @param index the index of the page, starting from 0
+	 * @return the width of the page
+	 */
+	public double getWidth(int index) {
+		return widths[index];
+	}
+
+	/**
+	 * Returns the height of the page as it appears when displayed.
+	 *
+	 * @param index the index of the page, starting from 0
+	 * @return the height of the page
+	 */
+	public double getHeight(int index) {
+		return heights[index];
+	}
+
+	/**
+	 * Returns the dimensions of the minimal rectangle into which all pages
+	 * in this table can fit.
+	 *
+	 * @return the pair of dimensions [width, height]
+	 */
+	public double[] maxDimensions() {
+		double width = 0;
+		double height = 0;
+		for (int i = 0; i < widths.length; i++) {
+			if (widths[i] > width) {
+				width = widths[i];
+			}
+			if (heights[i] > height) {
+				height = heights[i];
+			}
+		}
+		return new double[]{width, height};
+	}
+
+	@Override
+	public String toString() {
+		return "PageGeometry [pages=" + widths.length
+				+ ", max=" + Arrays.toString(maxDimensions()) + "]";
+	}
+}
@@ -0,0 +1,305 @@
+package com.github.singond.pdfriend.document;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable sequence of pages which can be joined, sliced and reversed
+ * without copying the pages.
+ * <p>
+ * Each of these operations returns a new sequence which shares its
+ * structure with the original sequences, in the manner of a rope:
+ * joining two sequences creates a node referring to both of them,
+ * slicing creates a window into the original sequence and reversal
+ * creates a mirrored view of it.
+ * Joining is done in constant time, slicing and reversal in constant
+ * time with respect to the number of pages, and a page is found
+ * in time proportional to the depth of the resulting tree.
+ * Joining many sequences at once with {@link #concat(List)} produces
+ * a balanced tree, whose depth grows with the logarithm of the number
+ * of parts.
+ * <p>
+ * All mutating methods of the {@code List} interface throw
+ * {@code UnsupportedOperationException}.
+ * Instances of this class are thread-safe, provided the pages
+ * of the leaf sequences are thread-safe.
+ *
+ * @author Singon
+ */
+abstract class PageSequence extends AbstractList<VirtualPage> implements RandomAccess {
+
+	/** An empty sequence */
+	static final PageSequence EMPTY = new ArraySequence(new VirtualPage[0]);
+
+	/**
+	 * Returns a sequence containing the pages of the given collection.
+	 * If the collection is itself a page sequence, it is returned as is,
+	 * otherwise its pages are copied.
+	 *
+	 * @param pages the pages to be contained in the sequence
+	 * @return a sequence of {@code pages}
+	 */
+	static PageSequence copyOf(Collection<VirtualPage> pages) {
+		if (pages instanceof PageSequence) {
+			return (PageSequence) pages;
+		}
+		VirtualPage[] array = pages.toArray(new VirtualPage[pages.size()]);
+		for (VirtualPage page : array) {
+			if (page == null) {
+				throw new NullPointerException("The list of pages contains null");
+			}
+		}
+		return new ArraySequence(array);
+	}
+
+	/**
+	 * Joins several sequences into one in the order they are given.
+	 * The sequences are not copied, they become the parts of a balanced
+	 * tree whose depth is logarithmic in the number of the sequences.
+	 *
+	 * @param parts the sequences to be joined
+	 * @return a sequence containing the pages of all sequences
+	 *         in {@code parts}
+	 */
+	static PageSequence concat(List<PageSequence> parts) {
+		if (parts.isEmpty()) {
+			return EMPTY;
+		}
+		return concat(parts, 0, parts.size());
+	}
+
+	/**
+	 * Joins the sequences in the given range of the list into
+	 * a balanced tree.
+	 */
+	private static PageSequence concat(List<PageSequence> parts, int from, int to) {
+		if (to - from == 1) {
+			return parts.get(from);
+		}
+		int middle = (from + to) >>> 1;
+		return concat(concat(parts, from, middle), concat(parts, middle, to));
+	}
+
+	/**
+	 * Joins two sequences into one.
+	 *
+	 * @param left the sequence whose pages come first
+	 * @param right the sequence whose pages come second
+	 * @return a sequence containing the pages of {@code left}
+	 *         followed by those of {@code right}
+	 */
+	static PageSequence concat(PageSequence left, PageSequence right) {
+		if (left.isEmpty()) {
+			return right;
+		} else if (right.isEmpty()) {
+			return left;
+		}
+		return new Concatenation(left, right);
+	}
+
+	/**
+	 * Returns a view of a range of pages in this sequence.
+	 *
+	 * @param from the index of the first page (inclusive), starting from 0
+	 * @param to the index of the last page (exclusive), starting from 0
+	 * @return the sequence of pages between {@code from} and {@code to}
+	 * @throws IndexOutOfBoundsException if the range does not lie
+	 *         within this sequence
+	 */
+	PageSequence slice(int from, int to) {
+		checkRange(from, to);
+		if (from == 0 && to == size()) {
+			return this;
+		} else if (from == to) {
+			return EMPTY;
+		}
+		return new Slice(this, from, to);
+	}
+
+	/**
+	 * Returns a view of this sequence with the pages in reverse order.
+	 *
+	 * @return the reversed sequence
+	 */
+	PageSequence reverse() {
+		if (size() < 2) {
+			return this;
+		}
+		return new Reversed(this);
+	}
+
+	/**
+	 * Checks that the given range lies within this sequence.
+	 */
+	final void checkRange(int from, int to) {
+		if (from < 0 || to > size() || from > to) {
+			throw new IndexOutOfBoundsException(
+					"Page range: " + from + "-" + to + ", page count: " + size());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned list is a page sequence.
+	 */
+	@Override
+	public List<VirtualPage> subList(int fromIndex, int toIndex) {
+		return slice(fromIndex, toIndex);
+	}
+
+	/**
+	 * A sequence backed by an array of pages.
+	 */
+	private static final class ArraySequence extends PageSequence {
+		private final VirtualPage[] pages;
+
+		private ArraySequence(VirtualPage[] pages) {
+			this.pages = pages;
+		}
+
+		@Override
+		public VirtualPage get(int index) {
+			return pages[index];
+		}
+
+		@Override
+		public int size() {
+			return pages.length;
+		}
+	}
+
+	/**
+	 * Two sequences joined one after another.
+	 */
+	private static final class Concatenation extends PageSequence {
+		private final PageSequence left;
+		private final PageSequence right;
+		/** The size of the left part, cached */
+		private final int split;
+		private final int size;
+
+		private Concatenation(PageSequence left, PageSequence right) {
+			this.left = left;
+			this.right = right;
+			this.split = left.size();
+			this.size = split + right.size();
+			if (size < 0) {
+				throw new IllegalArgumentException("The sequence is too long");
+			}
+		}
+
+		@Override
+		public VirtualPage get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Page index: " + index + ", page count: " + size);
+			}
+			// Descend iteratively to avoid deep recursion in unbalanced trees
+			PageSequence seq = this;
+			while (seq instanceof Concatenation) {
+				Concatenation node = (Concatenation) seq;
+				if (index < node.split) {
+					seq = node.left;
+				} else {
+					index -= node.split;
+					seq = node.right;
+				}
+			}
+			return seq.get(index);
+		}
+
+		@Override
+		PageSequence slice(int from, int to) {
+			checkRange(from, to);
+			if (to <= split) {
+				return left.slice(from, to);
+			} else if (from >= split) {
+				return right.slice(from - split, to - split);
+			} else if (from == 0 && to == size) {
+				return this;
+			}
+			return concat(left.slice(from, split), right.slice(0, to - split));
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * A contiguous range of pages in another sequence.
+	 */
+	private static final class Slice extends PageSequence {
+		private final PageSequence base;
+		private final int offset;
+		private final int size;
+
+		private Slice(PageSequence base, int from, int to) {
+			this.base = base;
+			this.offset = from;
+			this.size = to - from;
+		}
+
+		@Override
+		public VirtualPage get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Page index: " + index + ", page count: " + size);
+			}
+			return base.get(offset + index);
+		}
+
+		@Override
+		PageSequence slice(int from, int to) {
+			checkRange(from, to);
+			return base.slice(offset + from, offset + to);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Another sequence in reverse order.
+	 */
+	private static final class Reversed extends PageSequence {
+		private final PageSequence base;
+
+		private Reversed(PageSequence base) {
+			this.base = base;
+		}
+
+		@Override
+		public VirtualPage get(int index) {
+			int size = base.size();
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Page index: " + index + ", page count: " + size);
+			}
+			return base.get(size - 1 - index);
+		}
+
+		@Override
+		PageSequence slice(int from, int to) {
+			checkRange(from, to);
+			int size = base.size();
+			if (from == 0 && to == size) {
+				return this;
+			}
+			return base.slice(size - to, size - from).reverse();
+		}
+
+		@Override
+		PageSequence reverse() {
+			return base;
+		}
+
+		@Override
+		public int size() {
+			return base.size();
+		}
+	}
+}
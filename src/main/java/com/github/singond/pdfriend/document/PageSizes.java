@@ -0,0 +1,197 @@
+package com.github.singond.pdfriend.document;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A histogram of the page sizes in a document.
+ * For each distinct combination of page width and height, it holds
+ * the number of pages of that size.
+ * The sizes are listed in the order in which they first appear
+ * in the document, and are indexed from 0.
+ * <p>
+ * Most documents contain pages of only a few distinct sizes, so any
+ * calculation which depends only on the page size can be done once
+ * for each entry of this table instead of once for each page.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @author Singon
+ */
+public final class PageSizes {
+
+	/** The distinct widths */
+	private final double[] widths;
+	/** The distinct heights */
+	private final double[] heights;
+	/** The number of pages of each size */
+	private final int[] counts;
+
+	private PageSizes(double[] widths, double[] heights, int[] counts) {
+		this.widths = widths;
+		this.heights = heights;
+		this.counts = counts;
+	}
+
+	/**
+	 * Collects the distinct page sizes in the given geometry table.
+	 * The sizes are compared exactly, ie. pages whose dimensions differ
+	 * only by a rounding error are considered to be of different sizes.
+	 *
+	 * @param geometry the geometry table of the pages
+	 * @return a new histogram of the page sizes in {@code geometry}
+	 */
+	public static PageSizes of(PageGeometry geometry) {
+		int length = geometry.size();
+		double[] widths = new double[4];
+		double[] heights = new double[4];
+		int[] counts = new int[4];
+		int distinct = 0;
+
+		Map<Size, Size> index = new HashMap<>();
+		// A reusable key to look up sizes without creating objects
+		Size probe = new Size(0, 0, -1);
+		Size last = null;
+		for (int i = 0; i < length; i++) {
+			probe.width = geometry.getWidth(i);
+			probe.height = geometry.getHeight(i);
+			// Consecutive pages are likely to be of the same size
+			Size size = probe.equals(last) ? last : index.get(probe);
+			if (size == null) {
+				if (distinct == widths.length) {
+					widths = Arrays.copyOf(widths, 2 * distinct);
+					heights = Arrays.copyOf(heights, 2 * distinct);
+					counts = Arrays.copyOf(counts, 2 * distinct);
+				}
+				size = new Size(probe.width, probe.height, distinct);
+				index.put(size, size);
+				widths[distinct] = probe.width;
+				heights[distinct] = probe.height;
+				distinct++;
+			}
+			counts[size.index]++;
+			last = size;
+		}
+		return new PageSizes(Arrays.copyOf(widths, distinct),
+				Arrays.copyOf(heights, distinct),
+				Arrays.copyOf(counts, distinct));
+	}
+
+	/**
+	 * Returns the number of distinct page sizes.
+	 *
+	 * @return the number of entries in this table
+	 */
+	public int size() {
+		return widths.length;
+	}
+
+	/**
+	 * Returns the width of the pages of the given size.
+	 *
+	 * @param index the index of the page size, starting from 0
+	 * @return the page width
+	 */
+	public double getWidth(int index) {
+		return widths[index];
+	}
+
+	/**
+	 * Returns the height of the pages of the given size.
+	 *
+	 * @param index the index of the page size, starting from 0
+	 * @return the page height
+	 */
+	public double getHeight(int index) {
+		return heights[index];
+	}
+
+	/**
+	 * Returns the number of pages of the given size.
+	 *
+	 * @param index the index of the page size, starting from 0
+	 * @return the number of pages of this size
+	 */
+	public int getCount(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * Returns the total number of pages in this table.
+	 *
+	 * @return the sum of the counts of all page sizes
+	 */
+	public int totalPages() {
+		int total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the dimensions of the minimal rectangle into which pages
+	 * of all sizes in this table can fit.
+	 *
+	 * @return the pair of dimensions [width, height]
+	 */
+	public double[] maxDimensions() {
+		double width = 0;
+		double height = 0;
+		for (int i = 0; i < widths.length; i++) {
+			if (widths[i] > width) {
+				width = widths[i];
+			}
+			if (heights[i] > height) {
+				height = heights[i];
+			}
+		}
+		return new double[]{width, height};
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("PageSizes [");
+		for (int i = 0; i < widths.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(widths[i]).append("x").append(heights[i])
+					.append(": ").append(counts[i]);
+		}
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * A key in the index of distinct page sizes.
+	 */
+	private static final class Size {
+		private double width;
+		private double height;
+		/** The index of this size in the table */
+		private final int index;
+
+		private Size(double width, double height, int index) {
+			this.width = width;
+			this.height = height;
+			this.index = index;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Double.hashCode(width) + Double.hashCode(height);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Size))
+				return false;
+			Size other = (Size) obj;
+			return Double.compare(width, other.width) == 0
+					&& Double.compare(height, other.height) == 0;
+		}
+	}
+}
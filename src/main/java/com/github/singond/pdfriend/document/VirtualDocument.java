@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.github.singond.pdfriend.ExtendedLogger;
@@ -25,8 +27,11 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 	 * The list of pages comprising this document.
 	 * Note that the document pages are numbered from one, therefore their
 	 * numbers do not correspond to their indices in this internal list!
+	 * <p>
+	 * The sequence is immutable and may be shared with other documents
+	 * derived from this one.
 	 */
-	private final List<VirtualPage> pages;
+	private final PageSequence pages;
 
 	/**
 	 * An optional name of the document to be used e.g. in logs.
@@ -34,6 +39,18 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 	 */
 	private final String name;
 
+	/**
+	 * A function to obtain the page geometry without creating the pages.
+	 * Allowed to be null, in which case the geometry is read from the pages.
+	 */
+	private final Supplier<PageGeometry> geometryProbe;
+
+	/** The geometry of the pages, computed when first requested. */
+	private volatile PageGeometry geometry;
+
+	/** The histogram of page sizes, computed when first requested. */
+	private volatile PageSizes pageSizes;
+
 	private static ExtendedLogger logger = Log.logger(VirtualDocument.class);
 
 	private static final int CONCAT_TO_STRING_LIMIT = 4;
@@ -45,8 +62,7 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 	 * @param name the name to be given to the document
 	 */
 	public VirtualDocument(List<VirtualPage> pages, String name) {
-		this.pages = new ArrayList<>(pages);
-		this.name = name;
+		this(PageSequence.copyOf(pages), null, name);
 	}
 
 	/**
@@ -58,16 +74,64 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 		this(pages, null);
 	}
 
+	/**
+	 * Constructs a new named document whose pages are created on demand.
+	 * Only the number of pages is known up front; each page is obtained
+	 * from {@code pageFactory} when it is accessed for the first time
+	 * and then kept for any subsequent access.
+	 * This way, the cost of creating a page is paid only for the pages
+	 * which are actually used.
+	 *
+	 * @param length the number of pages in the document
+	 * @param pageFactory the function to create the page at the given
+	 *        index (note that the index is numbered from 0)
+	 * @param name the name to be given to the document
+	 */
+	public VirtualDocument(int length, IntFunction<VirtualPage> pageFactory, String name) {
+		this(length, pageFactory, null, name);
+	}
+
+	/**
+	 * Constructs a new named document whose pages are created on demand
+	 * and whose page geometry can be obtained without creating the pages.
+	 * This works like {@link #VirtualDocument(int, IntFunction, String)},
+	 * except that {@link #getGeometry} uses {@code geometryProbe} instead
+	 * of creating all pages.
+	 *
+	 * @param length the number of pages in the document
+	 * @param pageFactory the function to create the page at the given
+	 *        index (note that the index is numbered from 0)
+	 * @param geometryProbe the function to obtain the geometry of all
+	 *        pages; it must return a table of {@code length} pages
+	 *        whose dimensions agree with those of the pages created by
+	 *        {@code pageFactory}. May be null.
+	 * @param name the name to be given to the document
+	 */
+	public VirtualDocument(int length, IntFunction<VirtualPage> pageFactory,
+			Supplier<PageGeometry> geometryProbe, String name) {
+		this(new LazyPageList(length, pageFactory), geometryProbe, name);
+	}
+
+	/**
+	 * Constructs a new named document composed of the given sequence
+	 * of pages, which is shared rather than copied.
+	 */
+	private VirtualDocument(PageSequence pages,
+			Supplier<PageGeometry> geometryProbe, String name) {
+		this.pages = pages;
+		this.name = name;
+		this.geometryProbe = geometryProbe;
+	}
 
 	/**
 	 * Returns a list of all pages in this document.
 	 * Note that the document pages are numbered from one, therefore their
 	 * numbers do not correspond to their indices in this internal list!
 	 *
-	 * @return A defensive copy of the list of pages.
+	 * @return an unmodifiable list of the pages
 	 */
 	public List<VirtualPage> getPages() {
-		return new ArrayList<>(pages);
+		return pages;
 	}
 
 	/**
@@ -89,6 +153,53 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 		return pages.size();
 	}
 
+	/**
+	 * Returns the geometry of all pages in this document.
+	 * If the document has been created with a geometry probe, the geometry
+	 * is obtained without creating the pages themselves.
+	 * The result is computed once and cached.
+	 *
+	 * @return the table of page dimensions
+	 */
+	public PageGeometry getGeometry() {
+		PageGeometry result = geometry;
+		if (result == null) {
+			if (geometryProbe != null) {
+				result = geometryProbe.get();
+				if (result.size() != pages.size()) {
+					throw new IllegalStateException(String.format(
+							"The page geometry of %s has %d pages, expected %d",
+							this, result.size(), pages.size()));
+				}
+			} else {
+				result = PageGeometry.of(pages);
+			}
+			if (logger.isDebugEnabled())
+				logger.debug("vdoc_geometry", this, result);
+			geometry = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the distinct sizes of the pages in this document together
+	 * with the number of pages of each size.
+	 * This is obtained from the page geometry (see {@link #getGeometry})
+	 * and is computed once and cached.
+	 *
+	 * @return the histogram of page sizes
+	 */
+	public PageSizes getPageSizes() {
+		PageSizes result = pageSizes;
+		if (result == null) {
+			result = PageSizes.of(getGeometry());
+			if (logger.isDebugEnabled())
+				logger.debug("vdoc_pageSizes", this, result);
+			pageSizes = result;
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the dimensions of the minimal rectangle into which all pages
 	 * of this document can fit.
@@ -96,19 +207,7 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 	 * @return the pair of dimensions [width, height]
 	 */
 	public double[] maxPageDimensions() {
-		double width = 0;
-		double height = 0;
-		for (VirtualPage p : pages) {
-			double w = p.getWidth();
-			if (w > width) {
-				width = w;
-			}
-			double h = p.getHeight();
-			if (h > height) {
-				height = h;
-			}
-		}
-		return new double[]{width, height};
+		return getPageSizes().maxDimensions();
 	}
 
 	/**
@@ -130,14 +229,7 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 			return docs.get(0);
 		}
 
-		if (logger.isDebugEnabled())
-			logger.debug("vdoc_concatenating", docs.size());
-		final List<VirtualPage> pages = new ArrayList<>();
-		for (VirtualDocument doc : docs) {
-			pages.addAll(doc.getPages());
-		}
-		return new VirtualDocument(pages, Formatting.listDigest(
-				docs, CONCAT_TO_STRING_LIMIT).toString());
+		return concatenateLazily(docs);
 	}
 
 	/**
@@ -158,14 +250,65 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 			return docs[0];
 		}
 
+		return concatenateLazily(Arrays.asList(docs));
+	}
+
+	/**
+	 * Joins several virtual documents into one without accessing
+	 * their pages.
+	 * The page sequences of the original documents are shared by the result,
+	 * and the page geometry of the result is composed from the geometries
+	 * of the original documents.
+	 */
+	private static VirtualDocument concatenateLazily(List<VirtualDocument> docs) {
 		if (logger.isDebugEnabled())
-			logger.debug("vdoc_concatenating", docs.length);
-		final List<VirtualPage> pages = new ArrayList<>();
-		for (VirtualDocument doc : docs) {
-			pages.addAll(doc.getPages());
+			logger.debug("vdoc_concatenating", docs.size());
+		final List<VirtualDocument> parts = new ArrayList<>(docs);
+		List<PageSequence> sequences = new ArrayList<>(parts.size());
+		for (VirtualDocument doc : parts) {
+			sequences.add(doc.pages);
 		}
-		return new VirtualDocument(pages, Formatting.listDigest(
-				Arrays.asList(docs), CONCAT_TO_STRING_LIMIT).toString());
+		return new VirtualDocument(PageSequence.concat(sequences),
+				() -> PageGeometry.concatenate(parts.stream()
+						.map(VirtualDocument::getGeometry)
+						.collect(Collectors.toList())),
+				Formatting.listDigest(parts, CONCAT_TO_STRING_LIMIT).toString());
+	}
+
+	/**
+	 * Returns a document consisting of a range of pages of this document.
+	 * The pages are not copied; the returned document is a view of this
+	 * document, and its page geometry is taken from that of this document.
+	 * The returned document has no name.
+	 *
+	 * @param first the number of the first page (inclusive),
+	 *        starting from number one
+	 * @param last the number of the last page (inclusive),
+	 *        starting from number one
+	 * @return the document containing the pages {@code first} to
+	 *         {@code last} of this document
+	 * @throws IndexOutOfBoundsException if the range does not lie
+	 *         within this document
+	 */
+	public VirtualDocument subDocument(int first, int last) {
+		final int from = first - 1;
+		final int to = last;
+		return new VirtualDocument(pages.slice(from, to),
+				() -> getGeometry().slice(from, to), null);
+	}
+
+	/**
+	 * Returns a document with the pages of this document in reverse order.
+	 * The pages are not copied; the returned document is a view of this
+	 * document, and its page geometry is taken from that of this document.
+	 * The returned document has no name.
+	 *
+	 * @return the document containing the pages of this document
+	 *         in reverse order
+	 */
+	public VirtualDocument reverse() {
+		return new VirtualDocument(pages.reverse(),
+				() -> getGeometry().reverse(), null);
 	}
 
 	/**
@@ -244,8 +387,7 @@ public final class VirtualDocument implements Iterable<VirtualPage> {
 	}
 
 	public ListIterator<VirtualPage> iterator(int index) {
-		// TODO Any other way to provide non-mutating iterator?
-		return getPages().listIterator(index);
+		return pages.listIterator(index);
 	}
 
 	@Override
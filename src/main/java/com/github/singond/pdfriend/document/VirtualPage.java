@@ -2,10 +2,9 @@ package com.github.singond.pdfriend.document;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
@@ -16,6 +15,11 @@ import com.github.singond.pdfriend.util.Formatting;
  * This is a part of the uniform document interface shared between modules.
  * If the used implementation of Content is immutable, this VirtualPage
  * itself is immutable.
+ * <p>
+ * The content elements are kept in tables along with any transformations
+ * which have not been applied to them yet. The tables are passed from one
+ * page to another without applying the transformations, which is done
+ * only when the final content is obtained by {@link #getContentStatic}.
  *
  * @author Singon
  */
@@ -25,8 +29,8 @@ public final class VirtualPage {
 	private final double width;
 	/** The height of the page in output. */
 	private final double height;
-	/** A collection of all content elements along with their positions. */
-	private final Set<Content> content;
+	/** All content elements along with their positions. */
+	private final List<ContentTable> content;
 
 	private static final int TO_STRING_LIMIT = 4;
 
@@ -42,7 +46,7 @@ public final class VirtualPage {
 	public VirtualPage(double width, double height) {
 		this.width = width;
 		this.height = height;
-		this.content = new LinkedHashSet<>();
+		this.content = Collections.emptyList();
 	}
 
 	/**
@@ -59,7 +63,8 @@ public final class VirtualPage {
 	public VirtualPage(double width, double height, Collection<Content> content) {
 		this.width = width;
 		this.height = height;
-		this.content = new LinkedHashSet<>(content);
+		this.content = Collections.singletonList(
+				ContentTable.of(new LinkedHashSet<>(content)));
 	}
 
 	/**
@@ -74,8 +79,8 @@ public final class VirtualPage {
 	public VirtualPage(double width, double height, Content content) {
 		this.width = width;
 		this.height = height;
-		this.content = new LinkedHashSet<>();
-		this.content.add(content);
+		this.content = Collections.singletonList(
+				ContentTable.of(Collections.singletonList(content)));
 	}
 
 	/**
@@ -88,7 +93,20 @@ public final class VirtualPage {
 	public VirtualPage(VirtualPage original) {
 		this.width = original.width;
 		this.height = original.height;
-		this.content = new LinkedHashSet<>(original.content);
+		// The tables are never transformed in place, so they can be shared
+		this.content = original.content;
+	}
+
+	/**
+	 * Creates a new instance of VirtualPage from the given builder.
+	 *
+	 * @param builder the builder holding the dimensions and content
+	 */
+	private VirtualPage(Builder builder) {
+		this.width = builder.width;
+		this.height = builder.height;
+		// The builder never transforms its tables either
+		this.content = new ArrayList<>(builder.content);
 	}
 
 
@@ -111,7 +129,7 @@ public final class VirtualPage {
 	 * @return a non-live view (but see {@link Contents}) of the content
 	 */
 	public TransformableContents getContents() {
-		return new ContentsMovable(getMovableContent());
+		return new ContentsMovable(copyTables(content));
 	}
 
 	/**
@@ -120,26 +138,15 @@ public final class VirtualPage {
 	 * {@code UnsupportedOperationException} on invocation of the
 	 * {@link Content#transform} method.
 	 * <p>
-	 * The object returned by this method is expected to perform better when
-	 * compared to that returned by {@link #getContents}.
+	 * This is where any transformations of the content elements which are
+	 * still pending are applied, so this method should be used when
+	 * the final positions of the elements are needed, for example
+	 * in rendering.
 	 *
 	 * @return a non-live view (but see {@link Contents}) of the content
 	 */
 	public Contents getContentStatic() {
-		return new ContentsStatic(new ArrayList<>(content));
-	}
-
-	/**
-	 * Returns the content of the sheet as a collection of all content
-	 * elements, wrapped in a builder object to facilitate transforming.
-	 *
-	 * @return a shallow copy of the internal collection of content
-	 *         elements, each converted to a new Content.Movable
-	 */
-	List<MovableContent> getMovableContent() {
-		return content.stream()
-		              .map(MovableContent::new)
-		              .collect(Collectors.toList());
+		return new ContentsStatic(collectContent(content));
 	}
 
 	/**
@@ -155,7 +162,12 @@ public final class VirtualPage {
 	 *         make any visible changes to the output
 	 */
 	public boolean isBlank() {
-		return content.isEmpty();
+		for (ContentTable t : content) {
+			if (t.size() > 0) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -166,11 +178,35 @@ public final class VirtualPage {
 	 */
 	@Override
 	public String toString() {
-		/*
-		 * Consistency between invocations is achieved by using LinkedHashSet
-		 * for contents.
-		 */
-		return Formatting.listDigest(content, TO_STRING_LIMIT).toString();
+		return Formatting.listDigest(collectContent(content), TO_STRING_LIMIT).toString();
+	}
+
+	/**
+	 * Returns copies of the given content tables, so that they can be
+	 * transformed independently of the originals.
+	 */
+	private static List<ContentTable> copyTables(List<ContentTable> tables) {
+		List<ContentTable> copies = new ArrayList<>(tables.size());
+		for (ContentTable t : tables) {
+			copies.add(t.copy());
+		}
+		return copies;
+	}
+
+	/**
+	 * Collects the content elements of the given tables in their final
+	 * positions into a single list.
+	 */
+	private static List<Content> collectContent(List<ContentTable> tables) {
+		int size = 0;
+		for (ContentTable t : tables) {
+			size += t.size();
+		}
+		List<Content> result = new ArrayList<>(size);
+		for (ContentTable t : tables) {
+			t.addTo(result);
+		}
+		return result;
 	}
 
 	/**
@@ -180,7 +216,7 @@ public final class VirtualPage {
 	public static class Builder {
 		private double width;
 		private double height;
-		private List<Content> content;
+		private List<ContentTable> content;
 
 		/**
 		 * Constructs a new page builder with a default page size and no conent.
@@ -221,8 +257,14 @@ public final class VirtualPage {
 			this.height = height;
 		}
 
+		/**
+		 * Returns the content elements added so far in their final
+		 * positions.
+		 *
+		 * @return a new list of the content elements
+		 */
 		public List<Content> getContent() {
-			return content;
+			return collectContent(content);
 		}
 
 		/**
@@ -237,7 +279,8 @@ public final class VirtualPage {
 			if (!this.content.isEmpty()) {
 				logger.warn("vpage_overwritingContent", Builder.this);
 			}
-			this.content = new ArrayList<>(contents.get());
+			this.content = new ArrayList<>();
+			addContent(contents);
 		}
 
 		/**
@@ -246,16 +289,23 @@ public final class VirtualPage {
 		 * @param content the piece of content to be added
 		 */
 		public void addContent(Content content) {
-			this.content.add(content);
+			this.content.add(ContentTable.of(Collections.singletonList(content)));
 		}
 
 		/**
 		 * Adds all given contents.
+		 * If the contents have been transformed, the transformations
+		 * are carried over to the page without being applied to
+		 * the individual content elements.
 		 *
 		 * @param contents the contents to be added
 		 */
 		public void addContent(Contents contents) {
-			this.content.addAll(contents.get());
+			if (contents instanceof ContentsMovable) {
+				this.content.addAll(copyTables(((ContentsMovable) contents).getTables()));
+			} else {
+				this.content.add(ContentTable.of(contents.get()));
+			}
 		}
 
 		/**
@@ -266,8 +316,8 @@ public final class VirtualPage {
 		public VirtualPage build() {
 			if (logger.isDebugEnabled())
 				logger.debug("vpage_building", width, height,
-						Formatting.listDigest(content, TO_STRING_LIMIT));
-			return new VirtualPage(width, height, content);
+						Formatting.listDigest(getContent(), TO_STRING_LIMIT));
+			return new VirtualPage(this);
 		}
 	}
 }
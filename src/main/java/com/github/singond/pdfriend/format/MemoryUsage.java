@@ -0,0 +1,116 @@
+package com.github.singond.pdfriend.format;
+
+/**
+ * Specifies where the data of the parsed input documents are to be held
+ * while the documents are open.
+ * <p>
+ * Keeping the data in main memory is fastest, but requires the whole
+ * input to fit into the heap. For large inputs, the data can be buffered
+ * in temporary files instead, optionally keeping up to a given amount
+ * of data in main memory.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @author Singon
+ */
+public final class MemoryUsage {
+
+	/** The storage to be used */
+	private final Mode mode;
+
+	/**
+	 * Maximum number of bytes to be kept in main memory.
+	 * Only used in {@link Mode#MIXED}, where it must be non-negative.
+	 */
+	private final long maxMainMemoryBytes;
+
+	private static final MemoryUsage MAIN_MEMORY_ONLY
+			= new MemoryUsage(Mode.MAIN_MEMORY, -1);
+	private static final MemoryUsage TEMP_FILE_ONLY
+			= new MemoryUsage(Mode.TEMP_FILE, -1);
+
+	private MemoryUsage(Mode mode, long maxMainMemoryBytes) {
+		this.mode = mode;
+		this.maxMainMemoryBytes = maxMainMemoryBytes;
+	}
+
+	/**
+	 * Returns a setting which keeps all data in main memory.
+	 * This is the default.
+	 *
+	 * @return an instance representing unrestricted main memory usage
+	 */
+	public static MemoryUsage mainMemoryOnly() {
+		return MAIN_MEMORY_ONLY;
+	}
+
+	/**
+	 * Returns a setting which keeps all buffered data in temporary files.
+	 *
+	 * @return an instance representing temporary file usage
+	 */
+	public static MemoryUsage tempFileOnly() {
+		return TEMP_FILE_ONLY;
+	}
+
+	/**
+	 * Returns a setting which keeps up to the given amount of data
+	 * in main memory and puts the rest in temporary files.
+	 *
+	 * @param maxMainMemoryBytes the maximum number of bytes to be held
+	 *        in main memory
+	 * @return an instance representing mixed memory usage
+	 */
+	public static MemoryUsage mixed(long maxMainMemoryBytes) {
+		if (maxMainMemoryBytes < 0) {
+			throw new IllegalArgumentException
+					("The amount of main memory must not be negative: " + maxMainMemoryBytes);
+		}
+		return new MemoryUsage(Mode.MIXED, maxMainMemoryBytes);
+	}
+
+	/**
+	 * Returns the storage to be used for the data.
+	 *
+	 * @return the storage mode
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the maximum number of bytes to be held in main memory.
+	 * This is only meaningful in {@link Mode#MIXED}.
+	 *
+	 * @return the upper limit of main memory usage in bytes
+	 */
+	public long getMaxMainMemoryBytes() {
+		return maxMainMemoryBytes;
+	}
+
+	@Override
+	public String toString() {
+		switch (mode) {
+			case MAIN_MEMORY:
+				return "main memory only";
+			case TEMP_FILE:
+				return "temporary file only";
+			case MIXED:
+				return "main memory up to " + maxMainMemoryBytes + " bytes, temporary file for the rest";
+			default:
+				throw new AssertionError("Unknown memory usage mode: " + mode);
+		}
+	}
+
+	/**
+	 * The storage to be used for the data of parsed documents.
+	 */
+	public static enum Mode {
+		/** Keep all data in main memory */
+		MAIN_MEMORY,
+		/** Keep all data in temporary files */
+		TEMP_FILE,
+		/** Keep data in main memory up to a limit, then use temporary files */
+		MIXED;
+	}
+}
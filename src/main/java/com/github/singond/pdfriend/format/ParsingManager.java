@@ -3,7 +3,13 @@ package com.github.singond.pdfriend.format;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.format.process.PDFParser;
 //import com.github.singond.pdfriend.io.FileInput;
@@ -17,23 +23,114 @@ import com.github.singond.pdfriend.io.InputElement;
  */
 public class ParsingManager implements AutoCloseable {
 
-	private final PDFParser pdfParser = new PDFParser();
+	private static ExtendedLogger logger = Log.logger(ParsingManager.class);
+
+	private final PDFParser pdfParser;
+
+	/** Maximum number of input elements to be parsed concurrently */
+	private final int threads;
+
+	/**
+	 * Constructs a new parsing manager which keeps all document data
+	 * in main memory and parses the input sequentially.
+	 */
+	public ParsingManager() {
+		this(MemoryUsage.mainMemoryOnly());
+	}
+
+	/**
+	 * Constructs a new parsing manager which keeps the document data
+	 * as specified by the given memory usage setting and parses
+	 * the input sequentially.
+	 *
+	 * @param memoryUsage where to keep the data of the parsed documents
+	 */
+	public ParsingManager(MemoryUsage memoryUsage) {
+		this(memoryUsage, 1);
+	}
+
+	/**
+	 * Constructs a new parsing manager which keeps the document data
+	 * as specified by the given memory usage setting and parses up to
+	 * {@code threads} input elements at the same time.
+	 *
+	 * @param memoryUsage where to keep the data of the parsed documents
+	 * @param threads maximum number of input elements to be parsed
+	 *        concurrently; {@code 1} means parsing sequentially
+	 */
+	public ParsingManager(MemoryUsage memoryUsage, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException
+					("The number of threads must be positive: " + threads);
+		}
+		this.pdfParser = new PDFParser(memoryUsage);
+		this.threads = threads;
+	}
 
 	/**
 	 * Imports multiple input as a list of virtual documents.
+	 * If this manager allows more than one thread, the input elements
+	 * are parsed concurrently. The documents are always returned in the
+	 * order of their respective input elements.
+	 *
 	 * @param input
 	 * @return
 	 * @throws ParsingException
 	 */
 	public final List<VirtualDocument> parseToDocuments(Input input)
 			throws ParsingException {
-		List<VirtualDocument> docs = new ArrayList<>();
+		List<InputElement> elements = new ArrayList<>();
 		while (input.hasNext()) {
-			docs.add(parseToDocument(input.next()));
+			elements.add(input.next());
+		}
+		if (threads > 1 && elements.size() > 1) {
+			return parseConcurrently(elements);
+		}
+
+		List<VirtualDocument> docs = new ArrayList<>();
+		for (InputElement element : elements) {
+			docs.add(parseToDocument(element));
 		}
 		return docs;
 	}
 
+	/**
+	 * Imports the given input elements on a pool of worker threads.
+	 *
+	 * @param elements the input elements to be parsed
+	 * @return the virtual documents in the order of {@code elements}
+	 * @throws ParsingException if parsing any of the elements fails
+	 */
+	private List<VirtualDocument> parseConcurrently(List<InputElement> elements)
+			throws ParsingException {
+		int poolSize = Math.min(threads, elements.size());
+		logger.debug("parse_concurrent", elements.size(), poolSize);
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+		try {
+			List<Future<VirtualDocument>> futures = new ArrayList<>(elements.size());
+			for (InputElement element : elements) {
+				futures.add(executor.submit(() -> parseToDocument(element)));
+			}
+			List<VirtualDocument> docs = new ArrayList<>(elements.size());
+			for (Future<VirtualDocument> future : futures) {
+				docs.add(future.get());
+			}
+			return docs;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ParsingException) {
+				throw (ParsingException) cause;
+			} else {
+				throw new ParsingException(cause);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ParsingException("Interrupted while parsing the input", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Creates a new VirtualDocument from the given input data.
 	 * @return a VirtualDocument representing the input
@@ -1,8 +1,10 @@
 package com.github.singond.pdfriend.format;
 
+import java.util.Iterator;
 import java.util.List;
 
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
 import com.github.singond.pdfriend.format.process.PDFRenderer;
 import com.github.singond.pdfriend.io.Output;
 
@@ -13,6 +15,43 @@ import com.github.singond.pdfriend.io.Output;
  */
 public class RenderingManager {
 
+	/** Where to keep the data of the documents being rendered */
+	private final MemoryUsage memoryUsage;
+
+	/** The maximum number of threads to render a single document */
+	private final int threads;
+
+	/**
+	 * Constructs a new rendering manager which keeps the rendered
+	 * documents in main memory.
+	 */
+	public RenderingManager() {
+		this(MemoryUsage.mainMemoryOnly());
+	}
+
+	/**
+	 * Constructs a new rendering manager which keeps the data of the
+	 * rendered documents as specified by the given memory usage setting.
+	 *
+	 * @param memoryUsage where to keep the data of the rendered documents
+	 */
+	public RenderingManager(MemoryUsage memoryUsage) {
+		this(memoryUsage, 1);
+	}
+
+	/**
+	 * Constructs a new rendering manager which keeps the data of the
+	 * rendered documents as specified by the given memory usage setting
+	 * and renders long documents using up to the given number of threads.
+	 *
+	 * @param memoryUsage where to keep the data of the rendered documents
+	 * @param threads the maximum number of threads to render a document
+	 */
+	public RenderingManager(MemoryUsage memoryUsage, int threads) {
+		this.memoryUsage = memoryUsage;
+		this.threads = threads;
+	}
+
 	/**
 	 * Renders multiple documents as a list of virtual documents.
 	 *
@@ -23,9 +62,24 @@ public class RenderingManager {
 	public final void renderDocuments(List<VirtualDocument> docs, Output output)
 			throws RenderingException {
 		// TODO Handle different file formats?
-		PDFRenderer renderer = new PDFRenderer();
+		PDFRenderer renderer = new PDFRenderer(memoryUsage, threads);
 		for (VirtualDocument doc : docs) {
 			renderer.render(doc, output);
 		}
 	}
+
+	/**
+	 * Renders a sequence of pages as a single document.
+	 * The pages are rendered one at a time as they are obtained
+	 * from the iterator.
+	 *
+	 * @param pages the pages to be rendered, in order
+	 * @param output the output to write the rendered document into
+	 * @throws RenderingException if an error occurs during rendering
+	 */
+	public final void renderPages(Iterator<VirtualPage> pages, Output output)
+			throws RenderingException {
+		PDFRenderer renderer = new PDFRenderer(memoryUsage, threads);
+		renderer.render(pages, output);
+	}
 }
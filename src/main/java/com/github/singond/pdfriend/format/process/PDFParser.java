@@ -2,30 +2,64 @@ package com.github.singond.pdfriend.format.process;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.document.PageGeometry;
 import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.format.MemoryUsage;
 import com.github.singond.pdfriend.format.Parser;
 import com.github.singond.pdfriend.format.ParsingException;
 import com.github.singond.pdfriend.format.content.PDFPage;
 import com.github.singond.pdfriend.io.InputElement;
 
+/**
+ * Parses PDF documents into virtual documents.
+ * <p>
+ * Instances of this class are thread-safe: several documents may be
+ * parsed concurrently by one instance. However, the instance must not
+ * be closed while any document is being parsed.
+ */
 public class PDFParser implements Parser, AutoCloseable {
 
 	private static ExtendedLogger logger = Log.logger(PDFParser.class);
 
-	/** A list of open PDDocuments which need to be closed */
-	private final List<PDDocument> openDocs = new ArrayList<>();
+	/**
+	 * A list of open PDDocuments which need to be closed.
+	 * This is thread-safe to allow parsing several documents concurrently.
+	 */
+	private final Queue<PDDocument> openDocs = new ConcurrentLinkedQueue<>();
+
+	/** Where to keep the data of the loaded documents */
+	private final MemoryUsage memoryUsage;
+
+	/**
+	 * Constructs a new parser which keeps all document data in main memory.
+	 */
+	public PDFParser() {
+		this(MemoryUsage.mainMemoryOnly());
+	}
 
-	public PDFParser() {}
+	/**
+	 * Constructs a new parser which keeps the document data as specified
+	 * by the given memory usage setting.
+	 *
+	 * @param memoryUsage where to keep the data of the loaded documents
+	 */
+	public PDFParser(MemoryUsage memoryUsage) {
+		this.memoryUsage = memoryUsage;
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -37,10 +71,9 @@ public class PDFParser implements Parser, AutoCloseable {
 		PDDocument sourceDoc = null;
 		try {
 			if (logger.isDebugEnabled()) logger.debug("parse_pdf");
-			sourceDoc = PDDocument.load(in);
+			sourceDoc = PDDocument.load(in, memoryUsageSetting());
 			openDocs.add(sourceDoc);
-			VirtualDocument result = parseDocument(sourceDoc, "untitled").build();
-			return result;
+			return parseDocument(sourceDoc, "untitled");
 		} catch (IOException e) {
 			logger.error("Error when parsing the file", e);
 			throw new ParsingException("Error when parsing the PDF file", e);
@@ -49,6 +82,9 @@ public class PDFParser implements Parser, AutoCloseable {
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * If the input is backed by a file, the document is read directly
+	 * from the file instead of loading the whole input stream first.
 	 */
 	@SuppressWarnings("resource") // Resources are closed later in close() method
 	@Override
@@ -56,55 +92,131 @@ public class PDFParser implements Parser, AutoCloseable {
 			throws ParsingException {
 		PDDocument sourceDoc = null;
 		try {
-			sourceDoc = PDDocument.load(in.getInputStream());
+			Path file = in.getFile();
+			if (file != null) {
+				sourceDoc = PDDocument.load(file.toFile(), memoryUsageSetting());
+			} else {
+				sourceDoc = PDDocument.load(in.getInputStream(), memoryUsageSetting());
+			}
 			if (logger.isDebugEnabled()) logger.debug("parse_pdf");
 			openDocs.add(sourceDoc);
-			String name = in.getName();
-			VirtualDocument.Builder result = parseDocument(sourceDoc, name);
-			result.setName(name);
-			return result.build();
+			return parseDocument(sourceDoc, in.getName());
 		} catch (IOException e) {
 			logger.error("Error reading input", e);
 			throw new ParsingException("Error reading input", e);
 		}
 	}
 
+	/**
+	 * Returns the PDFBox memory usage setting for loading a document.
+	 */
+	private MemoryUsageSetting memoryUsageSetting() {
+		if (logger.isDebugEnabled()) logger.debug("parse_pdf_memory", memoryUsage);
+		return PDFSettings.getMemoryUsageSetting(memoryUsage);
+	}
+
 	/**
 	 * Converts the given PDF document into a virtual document.
+	 * <p>
+	 * Only the number of pages is read from the source document at this
+	 * point. The geometry and content of each page is read when the page
+	 * is accessed for the first time, so that pages which are never used
+	 * do not need to be processed at all.
+	 * The geometry of all pages can also be obtained separately by a light
+	 * probe of the page tree, which does not touch the page content.
+	 */
+	private VirtualDocument parseDocument(PDDocument sourceDoc, String docDescription) {
+		return new VirtualDocument(sourceDoc.getNumberOfPages(),
+				index -> parsePage(sourceDoc, index, docDescription),
+				() -> probeGeometry(sourceDoc, docDescription),
+				docDescription);
+	}
+
+	/**
+	 * Converts a single page of the given PDF document into a virtual page.
+	 *
+	 * @param sourceDoc the document containing the page
+	 * @param index the index of the page in {@code sourceDoc},
+	 *        numbered from 0
+	 * @param docDescription short description of the document
+	 * @return a new virtual page with the PDF page as its only content
 	 */
-	private VirtualDocument.Builder parseDocument(PDDocument sourceDoc,
-			String docDescription) throws ParsingException {
-		VirtualDocument.Builder result = new VirtualDocument.Builder();
-		result.setName(docDescription);
-		int pageNo = 1;
-		for (PDPage sourcePage : sourceDoc.getPages()) {
-			VirtualPage.Builder page = new VirtualPage.Builder();
-			double pageWidth, pageHeight;
+	private VirtualPage parsePage(PDDocument sourceDoc, int index, String docDescription) {
+		PDPage sourcePage;
+		double pageWidth, pageHeight;
+		// Pages may be created by several threads, but PDDocument is not thread-safe
+		synchronized (sourceDoc) {
+			sourcePage = sourceDoc.getPage(index);
 			PDRectangle box = PDFSettings.getBox(sourcePage);
-			/*
-			 * If the rotation is multiple of 180, the page is either
-			 * upright or upside down, ie. the width is width and
-			 * height is height. If the rotation is a multiple of 180 plus
-			 * 90, the page is rotated either left or right by 90 degrees,
-			 * meaning the declared width and height must be swapped.
-			 */
-			if (sourcePage.getRotation() % 180 == 0) {
-				pageWidth = box.getWidth();
-				pageHeight = box.getHeight();
-			} else if (sourcePage.getRotation() % 180 == 90) {
+			if (isRotatedSideways(sourcePage)) {
 				pageWidth = box.getHeight();
 				pageHeight = box.getWidth();
 			} else {
-				throw new RuntimeException("PDF Page rotation is not a multiple of 90: "
-						+ sourcePage.getRotation());
+				pageWidth = box.getWidth();
+				pageHeight = box.getHeight();
 			}
-			page.setWidth(pageWidth);
-			page.setHeight(pageHeight);
-			page.addContent(new PDFPage(sourceDoc, sourcePage,
-			                docDescription + "-" + pageNo++));
-			result.addPage(page);
 		}
-		return result;
+		return new VirtualPage(pageWidth, pageHeight, new PDFPage(sourceDoc,
+				sourcePage, docDescription + "-" + (index + 1)));
+	}
+
+	/**
+	 * Reads the geometry of all pages in the given PDF document.
+	 * This walks the page tree once and reads only the page box and
+	 * rotation of each page, without creating any page content.
+	 *
+	 * @param sourceDoc the document whose pages are to be examined
+	 * @param docDescription short description of the document
+	 * @return the geometry of the pages in {@code sourceDoc}
+	 */
+	private PageGeometry probeGeometry(PDDocument sourceDoc, String docDescription) {
+		if (logger.isDebugEnabled()) logger.debug("parse_pdf_probe", docDescription);
+		synchronized (sourceDoc) {
+			int length = sourceDoc.getNumberOfPages();
+			double[] widths = new double[length];
+			double[] heights = new double[length];
+			int i = 0;
+			for (PDPage page : sourceDoc.getPages()) {
+				PDRectangle box = PDFSettings.getBox(page);
+				if (isRotatedSideways(page)) {
+					widths[i] = box.getHeight();
+					heights[i] = box.getWidth();
+				} else {
+					widths[i] = box.getWidth();
+					heights[i] = box.getHeight();
+				}
+				i++;
+			}
+			return new PageGeometry(widths, heights);
+		}
+	}
+
+	/**
+	 * Checks whether the given page is displayed rotated by 90 degrees
+	 * in either direction.
+	 * <p>
+	 * If the rotation is multiple of 180, the page is either
+	 * upright or upside down, ie. the width is width and
+	 * height is height. If the rotation is a multiple of 180 plus
+	 * 90, the page is rotated either left or right by 90 degrees,
+	 * meaning the declared width and height must be swapped.
+	 * PDFBox normalizes the rotation of a page to a multiple of 90,
+	 * so any other value indicates an error.
+	 *
+	 * @param page the page to be examined
+	 * @return true if the declared width and height of the page
+	 *         must be swapped
+	 */
+	private static boolean isRotatedSideways(PDPage page) {
+		int rotation = page.getRotation();
+		if (rotation % 180 == 0) {
+			return false;
+		} else if (rotation % 180 == 90) {
+			return true;
+		} else {
+			throw new IllegalStateException("PDF page rotation is not a multiple of 90: "
+					+ rotation);
+		}
 	}
 
 	/**
@@ -1,9 +1,19 @@
 package com.github.singond.pdfriend.format.process;
 
 import java.awt.geom.AffineTransform;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.pdfbox.multipdf.LayerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -18,32 +28,200 @@ import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.Util;
 import com.github.singond.pdfriend.document.AContentVisitor;
 import com.github.singond.pdfriend.document.Content;
+import com.github.singond.pdfriend.document.Contents;
 import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.format.MemoryUsage;
 import com.github.singond.pdfriend.format.Renderer;
 import com.github.singond.pdfriend.format.RenderingException;
 import com.github.singond.pdfriend.format.content.PDFPage;
 import com.github.singond.pdfriend.io.Output;
 import com.github.singond.pdfriend.io.OutputException;
+import com.github.singond.pdfriend.util.WorkerPool;
 
 public class PDFRenderer extends Renderer<PDDocument> {
 
 	private static ExtendedLogger logger = Log.logger(PDFRenderer.class);
 
+	/** Where to keep the data of the documents being rendered */
+	private final MemoryUsage memoryUsage;
+
+	/** The maximum number of threads to render a single document */
+	private final int threads;
+
+	/**
+	 * Constructs a new renderer which keeps the rendered documents
+	 * in main memory until they are written out.
+	 */
+	public PDFRenderer() {
+		this(MemoryUsage.mainMemoryOnly());
+	}
+
+	/**
+	 * Constructs a new renderer which keeps the data of the rendered
+	 * documents as specified by the given memory usage setting.
+	 * <p>
+	 * The setting is passed to each new output document, whose streams
+	 * are then buffered by PDFBox in main memory or in temporary files
+	 * accordingly. The whole document, including the finished pages,
+	 * is still kept until it is written out.
+	 *
+	 * @param memoryUsage where to keep the data of the rendered documents
+	 */
+	public PDFRenderer(MemoryUsage memoryUsage) {
+		this(memoryUsage, 1);
+	}
+
+	/**
+	 * Constructs a new renderer which keeps the data of the rendered
+	 * documents as specified by the given memory usage setting
+	 * and renders long documents using several threads.
+	 * <p>
+	 * The pages of a long document are split into contiguous ranges,
+	 * each of which is rendered by a separate task in the
+	 * {@link WorkerPool}. All ranges are rendered into the same output
+	 * document, so each source page is still imported only once.
+	 *
+	 * @param memoryUsage where to keep the data of the rendered documents
+	 * @param threads the maximum number of threads to render a document
+	 */
+	public PDFRenderer(MemoryUsage memoryUsage, int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException
+					("The number of threads must be positive: " + threads);
+		this.memoryUsage = memoryUsage;
+		this.threads = threads;
+	}
+
 	@Override
 	public PDDocument render(VirtualDocument document) throws RenderingException {
 		if (logger.isDebugEnabled()) logger.debug("render_doc", document);
+		int shards = WorkerPool.splits(document.getLength(), threads);
+		if (shards > 1) {
+			return renderSharded(document, shards);
+		} else {
+			return render(document.iterator());
+		}
+	}
 
-		PDDocument targetDoc = new PDDocument();
+	/**
+	 * Renders the given sequence of virtual pages into a new PDF document.
+	 * <p>
+	 * Each page is rendered as soon as it is obtained from the iterator
+	 * and no reference to the virtual page is kept afterwards.
+	 * This allows rendering pages which are produced on demand without
+	 * holding all of them in memory at once.
+	 *
+	 * @param pages the pages to be rendered, in order
+	 * @return the new PDF document
+	 * @throws RenderingException if an error occurs during rendering
+	 */
+	public PDDocument render(Iterator<VirtualPage> pages) throws RenderingException {
+		PDDocument targetDoc = newDocument();
 		LayerUtility lutil = new LayerUtility(targetDoc);
 		DocumentController docCtrl = new DocumentController(targetDoc, lutil);
 
-		for (VirtualPage pg : document.getPages()) {
-			targetDoc.addPage(renderPage(pg, docCtrl));
+		while (pages.hasNext()) {
+			targetDoc.addPage(renderPage(pages.next(), docCtrl));
 		}
 		return targetDoc;
 	}
 
+	/**
+	 * Renders the given document into a new PDF document using several threads.
+	 * <p>
+	 * The pages are split into {@code shards} contiguous ranges,
+	 * each of which is rendered as a separate task in the {@link WorkerPool}.
+	 * Each task obtains the virtual pages of its range by itself,
+	 * so that pages created on demand are created in parallel, too.
+	 * All tasks render into the same document through a shared
+	 * {@link DocumentController}, so that a source page used in several
+	 * ranges is still imported only once. The rendered pages are added
+	 * to the document in their original order once all ranges are finished.
+	 *
+	 * @param document the document to be rendered
+	 * @param shards the number of ranges to split the pages into
+	 * @return the new PDF document
+	 * @throws RenderingException if an error occurs during rendering
+	 */
+	private PDDocument renderSharded(VirtualDocument document, int shards)
+			throws RenderingException {
+		int size = document.getLength();
+		if (logger.isDebugEnabled()) logger.debug("render_pdf_sharded", size, shards);
+		PDDocument targetDoc = newDocument();
+		DocumentController docCtrl = new DocumentController(targetDoc, new LayerUtility(targetDoc));
+
+		ForkJoinPool pool = WorkerPool.get();
+		List<ForkJoinTask<List<PDPage>>> tasks = new ArrayList<>(shards);
+		try {
+			for (int shard = 0; shard < shards; shard++) {
+				int first = shard * size / shards;
+				int last = (shard + 1) * size / shards;
+				Callable<List<PDPage>> task = () -> {
+					List<PDPage> rendered = new ArrayList<>(last - first);
+					// Pages are numbered from one in the virtual document
+					for (int pg = first + 1; pg <= last; pg++) {
+						rendered.add(renderPage(document.getPage(pg), docCtrl));
+					}
+					return rendered;
+				};
+				tasks.add(pool.submit(task));
+			}
+			for (ForkJoinTask<List<PDPage>> task : tasks) {
+				for (PDPage page : task.get()) {
+					targetDoc.addPage(page);
+				}
+			}
+			return targetDoc;
+		} catch (ExecutionException e) {
+			cancelAll(tasks);
+			closeQuietly(targetDoc);
+			Throwable cause = e.getCause();
+			if (cause instanceof RenderingException) {
+				throw (RenderingException) cause;
+			} else {
+				throw new RenderingException(cause);
+			}
+		} catch (InterruptedException e) {
+			cancelAll(tasks);
+			closeQuietly(targetDoc);
+			Thread.currentThread().interrupt();
+			throw new RenderingException("Interrupted while rendering the document", e);
+		}
+	}
+
+	/**
+	 * Cancels the rendering tasks which have not finished yet
+	 * and waits for those already running.
+	 */
+	private static void cancelAll(List<? extends ForkJoinTask<?>> tasks) {
+		for (ForkJoinTask<?> task : tasks) {
+			task.cancel(false);
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.quietlyJoin();
+		}
+	}
+
+	/**
+	 * Creates a new empty PDF document to render into.
+	 */
+	private PDDocument newDocument() {
+		if (logger.isDebugEnabled()) logger.debug("render_pdf_memory", memoryUsage);
+		return new PDDocument(PDFSettings.getMemoryUsageSetting(memoryUsage));
+	}
+
+	/**
+	 * Closes a document which failed to render.
+	 */
+	private static void closeQuietly(PDDocument doc) {
+		try {
+			doc.close();
+		} catch (IOException e) {
+			logger.error("PDF document could not be closed: " + doc, e);
+		}
+	}
+
 	@Override
 	public byte[] renderBinary(VirtualDocument document) throws RenderingException {
 		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
@@ -55,12 +233,41 @@ public class PDFRenderer extends Renderer<PDDocument> {
 		return bytes.toByteArray();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The whole document is rendered before any of it is written out,
+	 * so its structure stays in memory until then. Only the stream data
+	 * of the document are kept in temporary files, if the memory usage
+	 * setting of this renderer allows it.
+	 */
 	@Override
 	public void render(VirtualDocument document, Output out)
 			throws RenderingException {
-		try (PDDocument doc = render(document)) {
+		write(render(document), out);
+	}
+
+	/**
+	 * Renders the given sequence of virtual pages into a PDF document
+	 * and writes it into the given output.
+	 *
+	 * @param pages the pages to be rendered, in order
+	 * @param out the output to write into
+	 * @throws RenderingException if an error occurs during rendering
+	 * @see #render(Iterator)
+	 */
+	public void render(Iterator<VirtualPage> pages, Output out)
+			throws RenderingException {
+		write(render(pages), out);
+	}
+
+	/**
+	 * Writes the given rendered document into the output and closes it.
+	 */
+	private void write(PDDocument document, Output out) throws RenderingException {
+		try (PDDocument doc = document) {
 			logger.info("writeFile");
-			doc.save(out.getOutputStream());
+			doc.save(new BufferedOutputStream(out.getOutputStream()));
 			logger.info("writeFile_done", out);
 		} catch (OutputException e) {
 			throw new RenderingException("Error opening the output", e);
@@ -75,18 +282,20 @@ public class PDFRenderer extends Renderer<PDDocument> {
 		targetPage.setMediaBox(new PDRectangle((float) page.getWidth(), (float) page.getHeight()));
 		ContentRenderer contentRndr = new ContentRenderer();
 
-		if (page.getContents().isEmpty()) {
+		// The content is only read here, so there is no need to copy it
+		Contents contents = page.getContentStatic();
+		if (contents.isEmpty()) {
 			logger.debug("render_pageBlank", page);
 			return targetPage;
 		}
 		try {
-			PDPageContentStream content = new PDPageContentStream(docCtrl.doc, targetPage);
+			PDPageContentStream content = docCtrl.newContentStream(targetPage);
 			PageController pageCtrl = new PageController(docCtrl, targetPage, content);
 
 			if (logger.isDebugEnabled()) {
-				logger.debug("render_content", page.getContents().get().size(), page);
+				logger.debug("render_content", contents.get().size(), page);
 			}
-			for (Content c : page.getContents().get()) {
+			for (Content c : contents.get()) {
 				c.invite(contentRndr, pageCtrl);
 			}
 			content.close();
@@ -103,20 +312,23 @@ public class PDFRenderer extends Renderer<PDDocument> {
 
 		@Override
 		public Void visit(PDFPage source, PageController controller) throws RenderingException {
-			LayerUtility layerUtility = controller.doc.layerUtility;
 			PDPageContentStream content = controller.cs;
 			AffineTransform trMatrix = source.getPosition();
 
 			logger.debug("render_pdf_matrix", source, Util.toString(trMatrix));
 			PDPage page = source.getPage();
-			PDRectangle box = PDFSettings.getBox(page);
+			PDRectangle box;
+			int rotation;
+			synchronized (source.getDoc()) {
+				box = PDFSettings.getBox(page);
+				rotation = page.getRotation();
+			}
 			/*
 			 * HACK: Apparently, imposing a page with 90 or 270 degree rotation
 			 * stretches the page to fit the non-rotated rectangle, effectively
 			 * swapping height for width and vice versa. The following is
 			 * a hack to overcome this limitation of PDFBox.
 			 */
-			int rotation = page.getRotation();
 			if (rotation % 180 == 90) {
 				logger.debug("render_pdf_workaround", source, rotation);
 				float w = box.getWidth();
@@ -127,7 +339,7 @@ public class PDFRenderer extends Renderer<PDDocument> {
 			trMatrix.translate(box.getLowerLeftX(), box.getLowerLeftY());
 
 			try {
-				PDFormXObject form = layerUtility.importPageAsForm(source.getDoc(), page);
+				PDFormXObject form = controller.doc.importPageAsForm(source);
 				content.saveGraphicsState();
 				content.transform(new Matrix(trMatrix));
 				content.drawForm(form);
@@ -144,6 +356,11 @@ public class PDFRenderer extends Renderer<PDDocument> {
 	/**
 	 * Container aggregating objects necessary for document rendering.
 	 * Makes no guarantee regarding the objects' compatibility.
+	 * <p>
+	 * An instance of this class may be used by several threads rendering
+	 * pages of the same document. The document itself is not thread-safe,
+	 * so every change to its structure is made while holding its lock.
+	 * The only lock taken while holding it is that of a source document.
 	 */
 	private static class DocumentController {
 
@@ -153,10 +370,63 @@ public class PDFRenderer extends Renderer<PDDocument> {
 		/** Layer utility of the document */
 		private final LayerUtility layerUtility;
 
+		/**
+		 * Source pages already imported into {@code doc} as form XObjects,
+		 * grouped by their parent document.
+		 * This is guarded by the lock of {@code doc}.
+		 */
+		private final Map<PDDocument, Map<PDPage, PDFormXObject>> forms;
+
 		private DocumentController(PDDocument document,
 		                           LayerUtility layerUtility) {
 			this.doc = document;
 			this.layerUtility = layerUtility;
+			this.forms = new HashMap<>();
+		}
+
+		/**
+		 * Returns the page underlying the given content as a form XObject
+		 * usable in the document being rendered.
+		 * The page is imported only when it is requested for the first time,
+		 * any subsequent request for the same page returns the form
+		 * imported previously. This way, the page resources are embedded
+		 * into the output only once, no matter how many times the page
+		 * is drawn.
+		 *
+		 * @param source the content whose page is to be imported
+		 * @return the form XObject representing the page of {@code source}
+		 * @throws IOException if the page cannot be imported
+		 */
+		private PDFormXObject importPageAsForm(PDFPage source) throws IOException {
+			synchronized (doc) {
+				Map<PDPage, PDFormXObject> docForms =
+						forms.computeIfAbsent(source.getDoc(), d -> new HashMap<>());
+				PDFormXObject form = docForms.get(source.getPage());
+				if (form == null) {
+					// The source document may be read by other renderers, too
+					synchronized (source.getDoc()) {
+						form = layerUtility.importPageAsForm(source.getDoc(), source.getPage());
+					}
+					docForms.put(source.getPage(), form);
+				} else {
+					logger.debug("render_pdf_formReused", source);
+				}
+				return form;
+			}
+		}
+
+		/**
+		 * Creates a new content stream for the given page of the document
+		 * being rendered, replacing any previous content of the page.
+		 *
+		 * @param page the page whose content is to be written
+		 * @return a new content stream writing into {@code page}
+		 * @throws IOException if the content stream cannot be created
+		 */
+		private PDPageContentStream newContentStream(PDPage page) throws IOException {
+			synchronized (doc) {
+				return new PDPageContentStream(doc, page);
+			}
 		}
 	}
 
@@ -1,8 +1,11 @@
 package com.github.singond.pdfriend.format.process;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 
+import com.github.singond.pdfriend.format.MemoryUsage;
+
 public class PDFSettings {
 
 	/**
@@ -14,4 +17,22 @@ public class PDFSettings {
 	static final PDRectangle getBox(PDPage page) {
 		return page.getCropBox();
 	}
+
+	/**
+	 * Converts the given memory usage setting into its PDFBox equivalent.
+	 * @param usage the memory usage setting
+	 * @return a new MemoryUsageSetting equivalent to {@code usage}
+	 */
+	static final MemoryUsageSetting getMemoryUsageSetting(MemoryUsage usage) {
+		switch (usage.getMode()) {
+			case MAIN_MEMORY:
+				return MemoryUsageSetting.setupMainMemoryOnly();
+			case TEMP_FILE:
+				return MemoryUsageSetting.setupTempFileOnly();
+			case MIXED:
+				return MemoryUsageSetting.setupMixed(usage.getMaxMainMemoryBytes());
+			default:
+				throw new AssertionError("Unknown memory usage mode: " + usage.getMode());
+		}
+	}
 }
@@ -9,8 +9,10 @@ import com.github.singond.geometry.plane.Line;
 import com.github.singond.geometry.plane.Point;
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.Version;
 import com.github.singond.pdfriend.book.BoundBook;
 import com.github.singond.pdfriend.book.FlipDirection;
+import com.github.singond.pdfriend.book.ImpositionPlan;
 import com.github.singond.pdfriend.book.Leaf;
 import com.github.singond.pdfriend.book.Signature;
 import com.github.singond.pdfriend.book.Stack;
@@ -113,10 +115,10 @@ public class Codex extends AbstractImposable<BoundBook>
 	}
 	
 	/**
-	 * Imposes the given virtual document into a new book volume
+	 * Imposes the given virtual document into a new bound book
 	 * according to the current settings of this {@code Codex} object.
 	 */
-	private Volume imposeAsVolume(VirtualDocument doc) {
+	private BoundBook imposeAsBook(VirtualDocument doc) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("imposition_preprocessSettings", preprocess);
 			logger.debug("imposition_commonSettings", common);
@@ -154,9 +156,9 @@ public class Codex extends AbstractImposable<BoundBook>
 	 * basis for the final sheet size.
 	 * 
 	 * @param doc the document to be imposed
-	 * @return the document imposed into a new volume
+	 * @return the document imposed into a new book
 	 */
-	private Volume caseAutoSize(VirtualDocument doc) {
+	private BoundBook caseAutoSize(VirtualDocument doc) {
 		if (logger.isVerboseEnabled())
 			logger.verbose("codex_caseAutoSize");
 		
@@ -164,7 +166,7 @@ public class Codex extends AbstractImposable<BoundBook>
 		Dimensions pageSize = preprocessor.getResolvedCellDimensions();
 		Dimensions sheetSize = sheetSizeFromPageSize(pageSize, manipulations);
 		doc = preprocessDocument(doc, preprocessor, 0); // last arg is not used
-		return buildVolume(sheetSize, pageSize, manipulations, doc);
+		return buildBook(sheetSize, pageSize, manipulations, doc);
 	}
 	
 	/**
@@ -172,9 +174,9 @@ public class Codex extends AbstractImposable<BoundBook>
 	 * other parameters.
 	 * 
 	 * @param doc the document to be imposed
-	 * @return the document imposed into a new volume
+	 * @return the document imposed into a new book
 	 */
-	private Volume casePageSize(VirtualDocument doc) {
+	private BoundBook casePageSize(VirtualDocument doc) {
 		if (logger.isVerboseEnabled())
 			logger.verbose("codex_casePageSize");
 		
@@ -186,8 +188,7 @@ public class Codex extends AbstractImposable<BoundBook>
 		
 		// A factory to provide instances of Signature
 		SignatureFactory sf = new SignatureFactory(sheetSize.value(), manipulations);
-		Dimensions pageSize = new Dimensions(
-				sf.stack.currentWidth, sf.stack.currentHeight, unit);
+		Dimensions pageSize = new Dimensions(sf.pageWidth, sf.pageHeight, unit);
 		
 		// Apply the page size and build the Volume
 		if (preprocess.isAutoSize()) {
@@ -198,7 +199,7 @@ public class Codex extends AbstractImposable<BoundBook>
 		doc = preprocessDocument(doc, preprocessor, 0); // last arg is not used
 		// Fill pages with content
 		PageSource ps = PageSource.of(doc).build();
-		return buildVolume(sf, ps);
+		return buildBook(sf, ps);
 	}
 	
 	/**
@@ -206,9 +207,9 @@ public class Codex extends AbstractImposable<BoundBook>
 	 * other parameters.
 	 * 
 	 * @param doc the document to be imposed
-	 * @return the document imposed into a new volume
+	 * @return the document imposed into a new book
 	 */
-	private Volume caseSheetSize(VirtualDocument doc) {
+	private BoundBook caseSheetSize(VirtualDocument doc) {
 		if (logger.isVerboseEnabled())
 			logger.verbose("codex_caseSheetSize");
 		
@@ -220,7 +221,7 @@ public class Codex extends AbstractImposable<BoundBook>
 		Dimensions pageSize = preprocessor.getResolvedCellDimensions();
 		Dimensions sheetSize = sheetSizeFromPageSize(pageSize, manipulations);
 		doc = preprocessDocument(doc, preprocessor, 0); // last arg is not used
-		return buildVolume(sheetSize, pageSize, manipulations, doc);
+		return buildBook(sheetSize, pageSize, manipulations, doc);
 	}
 	
 	/**
@@ -266,6 +267,52 @@ public class Codex extends AbstractImposable<BoundBook>
 		return buildVolume(sf, ps);
 	}
 	
+	/**
+	 * Builds a book from the given stack properties and the pages
+	 * of the given source document.
+	 * @param sheetSize
+	 * @param pageSize
+	 * @param manipulations
+	 * @param doc the source document to be imposed
+	 * @return a new instance of {@code BoundBook}
+	 */
+	private BoundBook buildBook(Dimensions sheetSize, Dimensions pageSize,
+	                            List<SheetStackManipulation> manipulations,
+	                            VirtualDocument doc) {
+		SignatureFactory sf = new SignatureFactory(sheetSize, pageSize, manipulations);
+		PageSource ps = pageSourceBuilder(common, doc).build();
+		return buildBook(sf, ps);
+	}
+
+	/**
+	 * Builds a book from the given signature factory and page source.
+	 * <p>
+	 * Because all signatures are copies of one stack, the book is rendered
+	 * using a plan compiled from a single template signature, so that
+	 * the signatures of the whole volume need not be built.
+	 * If a plan cache is set, the plan is taken from there, avoiding
+	 * even the folding of the stack.
+	 * The volume itself is built only if it is requested from the book.
+	 * @param signatureFactory the provider of signatures
+	 * @param pageSource the pages to be imposed
+	 * @return a new instance of {@code BoundBook}
+	 */
+	private BoundBook buildBook(SignatureFactory signatureFactory,
+	                            PageSource pageSource) {
+		PlanCache cache = PlanCache.getDefault();
+		ImpositionPlan plan;
+		if (cache != null) {
+			plan = cache.get(signatureFactory.planKey(),
+					() -> ImpositionPlan.of(signatureFactory.template()));
+		} else {
+			plan = ImpositionPlan.of(signatureFactory.template());
+		}
+		if (logger.isDebugEnabled())
+			logger.debug("codex_plan", plan);
+		return new BoundBook(plan, pageSource.size(), pageSource::get,
+				() -> buildVolume(signatureFactory, pageSource));
+	}
+
 	/**
 	 * Builds a Volume by creating signatures from given stack properties,
 	 * filling them with pages of the given source document and appending
@@ -300,10 +347,18 @@ public class Codex extends AbstractImposable<BoundBook>
 	/**
 	 * A factory to provide instances of {@code Signature} based on the given
 	 * stack properties.
+	 * The stack is folded only once, when the first signature is requested,
+	 * and the resulting signature is kept as a template. All signatures
+	 * are then created as blank copies of the template.
 	 */
 	private class SignatureFactory {
+		private final Dimensions sheetSize;
+		private final List<SheetStackManipulation> manipulations;
+		private final double pageWidth;
+		private final double pageHeight;
 		private final Leaf leaf;
-		private final SheetStack stack;
+		/** The layout of all signatures; built lazily */
+		private Signature template;
 		
 		SignatureFactory(Dimensions sheetSize, Dimensions pageSize,
 		                 List<SheetStackManipulation> manipulations) {
@@ -317,8 +372,11 @@ public class Codex extends AbstractImposable<BoundBook>
 				throw new IllegalArgumentException
 						("The list of manipulations must not be null");
 			
-			stack = buildSheetStack(sheetSize, manipulations);
-			leaf = new Leaf(pageSize.width().in(unit), pageSize.height().in(unit));
+			this.sheetSize = sheetSize;
+			this.manipulations = manipulations;
+			this.pageWidth = pageSize.width().in(unit);
+			this.pageHeight = pageSize.height().in(unit);
+			this.leaf = new Leaf(pageWidth, pageHeight);
 		}
 		
 		/**
@@ -335,8 +393,16 @@ public class Codex extends AbstractImposable<BoundBook>
 				throw new IllegalArgumentException
 						("The list of manipulations must not be null");
 			
-			stack = buildSheetStack(sheetSize, manipulations);
-			leaf = new Leaf(stack.currentWidth, stack.currentHeight);
+			this.sheetSize = sheetSize;
+			this.manipulations = manipulations;
+			final SheetDimensions shDims = new SheetDimensions(
+					sheetSize.width().in(unit), sheetSize.height().in(unit));
+			for (SheetStackManipulation m : manipulations) {
+				m.applyToSheetDimensions(shDims);
+			}
+			this.pageWidth = shDims.width;
+			this.pageHeight = shDims.height;
+			this.leaf = new Leaf(pageWidth, pageHeight);
 		}
 		
 		private final SheetStack buildSheetStack(Dimensions sheetSize,
@@ -350,12 +416,38 @@ public class Codex extends AbstractImposable<BoundBook>
 		}
 		
 		/**
-		 * Builds a new {@code Signature} from the stack
+		 * Returns the signature whose layout is shared by all signatures
+		 * provided by this factory.
+		 * The returned signature must not be filled with pages.
+		 * @return the template signature
+		 */
+		Signature template() {
+			if (template == null) {
+				SheetStack stack = buildSheetStack(sheetSize, manipulations);
+				template = stack.stack.buildSignature(leaf);
+			}
+			return template;
+		}
+		
+		/**
+		 * Builds a new {@code Signature} from the template
 		 * @return a new instance on each invocation
 		 */
 		Signature newSignature() {
-			return stack.stack.copy().buildSignature(leaf);
+			return template().cloneBlank();
 		};
+		
+		/**
+		 * Returns a description of everything the signatures provided
+		 * by this factory depend on, to be used as the key of their plan.
+		 */
+		String planKey() {
+			return "codex;version=" + Version.current()
+					+ ";sheets=" + sheetsInSignature
+					+ ";sheet=" + sheetSize.width().in(unit) + "x" + sheetSize.height().in(unit)
+					+ ";page=" + pageWidth + "x" + pageHeight
+					+ ";manipulations=" + manipulations;
+		}
 	}
 	
 	/** Preprocess the given document */
@@ -371,7 +463,7 @@ public class Codex extends AbstractImposable<BoundBook>
 	}
 
 	public BoundBook impose(VirtualDocument source) {
-		return new BoundBook(imposeAsVolume(source));
+		return imposeAsBook(source);
 	}
 
 	/**
@@ -661,6 +753,14 @@ public class Codex extends AbstractImposable<BoundBook>
 		 */
 		void accommodateSheetDimensions(SheetDimensions dimensions);
 		
+		/**
+		 * Modifies the given sheet dimensions in the same way as performing
+		 * this manipulation on the stack modifies the stack dimensions.
+		 * This is the inverse of {@link #accommodateSheetDimensions}.
+		 * @param dimensions the dimensions to be modified
+		 */
+		void applyToSheetDimensions(SheetDimensions dimensions);
+		
 		/**
 		 * Applies this manipulation to the given stack.
 		 */
@@ -689,6 +789,11 @@ public class Codex extends AbstractImposable<BoundBook>
 			dimensions.height *= 2;
 		}
 
+		@Override
+		public void applyToSheetDimensions(SheetDimensions dimensions) {
+			dimensions.height = dimensions.height / 2;
+		}
+
 		@Override
 		public void putToStack(SheetStack stack) {
 			double halfHeight = stack.currentHeight / 2;
@@ -698,6 +803,11 @@ public class Codex extends AbstractImposable<BoundBook>
 			stack.manipulate(new Stack.Fold(foldAxis, direction.value()));
 			stack.currentHeight = halfHeight;
 		}
+
+		@Override
+		public String toString() {
+			return "horizontal fold " + direction;
+		}
 	}
 	
 	/**
@@ -714,6 +824,11 @@ public class Codex extends AbstractImposable<BoundBook>
 			dimensions.width *= 2;
 		}
 
+		@Override
+		public void applyToSheetDimensions(SheetDimensions dimensions) {
+			dimensions.width = dimensions.width / 2;
+		}
+
 		@Override
 		public void putToStack(SheetStack stack) {
 			double halfWidth = stack.currentWidth / 2;
@@ -723,6 +838,11 @@ public class Codex extends AbstractImposable<BoundBook>
 			stack.manipulate(new Stack.Fold(foldAxis, direction.value()));
 			stack.currentWidth = halfWidth;
 		}
+
+		@Override
+		public String toString() {
+			return "vertical fold " + direction;
+		}
 	}
 	
 	/**
@@ -735,12 +855,22 @@ public class Codex extends AbstractImposable<BoundBook>
 			// Do nothing
 		}
 
+		@Override
+		public void applyToSheetDimensions(SheetDimensions dimensions) {
+			// Do nothing
+		}
+
 		@Override
 		public void putToStack(SheetStack stack) {
 			if (logger.isDebugEnabled())
 				logger.debug("codex_stack_flipHorizontal");
 			stack.manipulate(Stack.Flip.horizontal(stack.currentWidth));
 		}
+
+		@Override
+		public String toString() {
+			return "horizontal flip";
+		}
 	}
 	
 	private enum FoldDirection {
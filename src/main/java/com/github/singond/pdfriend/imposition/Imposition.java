@@ -2,12 +2,10 @@ package com.github.singond.pdfriend.imposition;
 
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
-import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.geometry.LengthUnit;
 import com.github.singond.pdfriend.geometry.LengthUnits;
 import com.github.singond.pdfriend.modules.Module;
 import com.github.singond.pdfriend.modules.ModuleData;
-import com.github.singond.pdfriend.modules.ModuleDataFactory;
 import com.github.singond.pdfriend.modules.ModuleException;
 
 /**
@@ -49,9 +47,7 @@ public class Imposition implements Module {
 		}
 		logger.verbose("Selected imposition type is: " + task.getName());
 		
-		VirtualDocument document;
-		document = task.process(data.asMultipleDocuments());
-		return ModuleDataFactory.of(document);
+		return task.processToModuleData(data.asMultipleDocuments());
 	}
 
 	@Override
@@ -3,6 +3,8 @@ package com.github.singond.pdfriend.imposition;
 import java.util.List;
 
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.modules.ModuleData;
+import com.github.singond.pdfriend.modules.ModuleDataFactory;
 
 /**
  * An imposition task which can process a list of input documents into
@@ -25,4 +27,16 @@ interface ImpositionTask {
 	 * @return the document resulting from imposing all the input documents
 	 */
 	public VirtualDocument process(List<VirtualDocument> sources);
+	
+	/**
+	 * Imposes the given multiple source documents into module data.
+	 * Tasks which can produce the output pages one at a time may override
+	 * this to return streaming data; by default, the whole document
+	 * is imposed at once using {@link #process}.
+	 * @param sources the list of documents to be imposed
+	 * @return the data resulting from imposing all the input documents
+	 */
+	public default ModuleData processToModuleData(List<VirtualDocument> sources) {
+		return ModuleDataFactory.of(process(sources));
+	}
 }
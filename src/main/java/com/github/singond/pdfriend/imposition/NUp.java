@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Util;
 import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.SpecVal;
 import com.github.singond.pdfriend.book.FlipDirection;
@@ -24,6 +25,8 @@ import com.github.singond.pdfriend.geometry.Margins;
 import com.github.singond.pdfriend.imposition.CommonSettings.MarginSettings;
 import com.github.singond.pdfriend.imposition.Preprocessor.Resizing;
 import com.github.singond.pdfriend.imposition.Preprocessor.Settings;
+import com.github.singond.pdfriend.modules.ModuleData;
+import com.github.singond.pdfriend.modules.ModuleDataFactory;
 
 /**
  * An n-up layout.
@@ -137,79 +140,10 @@ public class NUp extends AbstractImposable<LoosePages>
 	 * according to the current settings of this {@code NUp} object.
 	 */
 	private List<GridPage> imposeAsPages(VirtualDocument doc) {
-		// Copy all nonfinal values defensively
-		final int rows = this.rows;
-		final int cols = this.cols;
-		final NUpOrientation orientation = this.orientation;
-		final FillDirection direction = this.direction;
 		final Preprocessor.Settings preprocess = this.preprocess;
 		final CommonSettings common = this.common;
 		int pageCount = common.getPageCount();
-		
-		if (logger.isDebugEnabled()) {
-			logger.debug("imposition_preprocessSettings", preprocess);
-			logger.debug("imposition_commonSettings", common);
-//			logger.debug("imposition_imposableSettings", NAME, );
-		}
-		
-		/*
-		 * Determine all properties of the page and grid.
-		 * 
-		 * In the output document of an n-up imposition, the page and the
-		 * sheet are the same thing. This implies that page size and sheet
-		 * size should both resolve to the same value.
-		 * If both are explicitly set to a different value, an exception
-		 * will be thrown to indicate this.
-		 * If only sheet size is given, use it as page size.
-		 * In any case, use only the page size in the grid construction.
-		 */
-		DimensionSettings pageSize = common.getPageSize();
-		DimensionSettings sheetSize = common.getSheetSize();
-		if (sheetSize != DimensionSettings.AUTO) {
-			if (pageSize == DimensionSettings.AUTO) {
-				logger.verbose("nup_pageSizeToSheetSize");
-				pageSize = sheetSize;
-			} else {
-				if (!pageSize.equals(sheetSize)) {
-					// The page size and sheet size are in conflict.
-					throw new IllegalStateException
-						("Sheet size and page size are set to a different value");
-				}
-			}
-		} // Otherwise just leave pageSize as it is
-		sheetSize = null;           // Won't need this anymore
-		
-		
-		/*
-		 * Choose which parameters need to be determined and construct
-		 * a grid page builder.
-		 */
-		PageControllers pc = null; // TODO remove initial value after finishing
-		if (pageSize == DimensionSettings.AUTO) {
-			// Case A
-			pc = casePageSize(doc, pageCount, rows, cols, orientation,
-			                  direction, preprocess, common);
-		} else if (gridType == GridType.AUTO) {
-			// Case D
-			assert pageSize.isValue();
-			pc = caseGrid(doc, pageCount, pageSize.value(), orientation,
-			              direction, preprocess, common);
-		} else if (preprocess.isAutoSize()) {
-			// Case C
-			assert pageSize.isValue();
-			pc = caseCellSize(doc, pageCount, rows, cols, pageSize.value(),
-			                  orientation, direction, preprocess, common);
-		} else if (common.getMargins() == MarginSettings.AUTO) {
-			// Case B
-			assert pageSize.isValue();
-			pc = caseMargins(doc, pageCount, rows, cols, pageSize.value(),
-			                 orientation, direction, preprocess, common);
-		} else {
-			// All are set, a conflict
-			logger.verbose("nup_caseConflict");
-			throw new IllegalStateException
-					("Conflicting settings: cell count, page size, margins and cell size are all set");
-		}
+		PageControllers pc = resolveLayout(doc);
 		Preprocessor preprocessor = pc.preprocessor;
 		GridPage.Builder builder = pc.builder;
 		int cellsPerPage = pc.cellsPerPage;
@@ -233,9 +167,16 @@ public class NUp extends AbstractImposable<LoosePages>
 				builder.getFillDirection());*/
 		
 		// Pre-processing
-		// TODO Pre-process only pages needed for pageCount
 		if (preprocess != null) {
-			doc = preprocessor.processAll();
+			if (pageCount < 0) {
+				// All pages will be used: process them all at once,
+				// which allows processing them in parallel
+				doc = preprocessor.processAll();
+			} else {
+				// Only the pages pulled from the page source
+				// by the grid filler will be processed
+				doc = preprocessor.processAllLazily();
+			}
 		}
 		
 		/*
@@ -288,6 +229,113 @@ public class NUp extends AbstractImposable<LoosePages>
 
 		return pages;
 	}
+
+	/**
+	 * Prepares the sequential imposition of the given virtual document
+	 * page by page.
+	 * The returned object produces each output page only when it is
+	 * requested, preprocessing only the source pages placed on it.
+	 * This way, the output can be consumed one page at a time without
+	 * keeping the whole document in memory.
+	 *
+	 * @param doc the document to be imposed
+	 * @return an object producing the pages of the imposed document
+	 */
+	SequentialPages imposeIncrementally(VirtualDocument doc) {
+		int pageCount = common.getPageCount();
+		PageControllers pc = resolveLayout(doc);
+		PageSource pageSrc = pageSourceBuilder(common, doc).build();
+		int size = Util.ceilingDivision(pageSrc.size(), pc.cellsPerPage);
+		if (pageCount > 0) {
+			logger.verbose("nup_pageCountPartial", pageCount);
+			size = Math.min(size, pageCount);
+		} else {
+			logger.verbose("nup_gridCount", pc.cellsPerPage);
+		}
+		Preprocessor preprocessor = preprocess != null ? pc.preprocessor : null;
+		return new SequentialPages(preprocessor, pc.builder, pageSrc, pc.cellsPerPage, size);
+	}
+
+	/**
+	 * Resolves the dimensions of the page, grid and cells for the given
+	 * document according to the current settings of this {@code NUp} object.
+	 */
+	private PageControllers resolveLayout(VirtualDocument doc) {
+		// Copy all nonfinal values defensively
+		final int rows = this.rows;
+		final int cols = this.cols;
+		final NUpOrientation orientation = this.orientation;
+		final FillDirection direction = this.direction;
+		final Preprocessor.Settings preprocess = this.preprocess;
+		final CommonSettings common = this.common;
+		int pageCount = common.getPageCount();
+		
+		if (logger.isDebugEnabled()) {
+			logger.debug("imposition_preprocessSettings", preprocess);
+			logger.debug("imposition_commonSettings", common);
+//			logger.debug("imposition_imposableSettings", NAME, );
+		}
+		
+		/*
+		 * Determine all properties of the page and grid.
+		 * 
+		 * In the output document of an n-up imposition, the page and the
+		 * sheet are the same thing. This implies that page size and sheet
+		 * size should both resolve to the same value.
+		 * If both are explicitly set to a different value, an exception
+		 * will be thrown to indicate this.
+		 * If only sheet size is given, use it as page size.
+		 * In any case, use only the page size in the grid construction.
+		 */
+		DimensionSettings pageSize = common.getPageSize();
+		DimensionSettings sheetSize = common.getSheetSize();
+		if (sheetSize != DimensionSettings.AUTO) {
+			if (pageSize == DimensionSettings.AUTO) {
+				logger.verbose("nup_pageSizeToSheetSize");
+				pageSize = sheetSize;
+			} else {
+				if (!pageSize.equals(sheetSize)) {
+					// The page size and sheet size are in conflict.
+					throw new IllegalStateException
+						("Sheet size and page size are set to a different value");
+				}
+			}
+		} // Otherwise just leave pageSize as it is
+		sheetSize = null;           // Won't need this anymore
+		
+		
+		/*
+		 * Choose which parameters need to be determined and construct
+		 * a grid page builder.
+		 */
+		PageControllers pc = null; // TODO remove initial value after finishing
+		if (pageSize == DimensionSettings.AUTO) {
+			// Case A
+			pc = casePageSize(doc, pageCount, rows, cols, orientation,
+			                  direction, preprocess, common);
+		} else if (gridType == GridType.AUTO) {
+			// Case D
+			assert pageSize.isValue();
+			pc = caseGrid(doc, pageCount, pageSize.value(), orientation,
+			              direction, preprocess, common);
+		} else if (preprocess.isAutoSize()) {
+			// Case C
+			assert pageSize.isValue();
+			pc = caseCellSize(doc, pageCount, rows, cols, pageSize.value(),
+			                  orientation, direction, preprocess, common);
+		} else if (common.getMargins() == MarginSettings.AUTO) {
+			// Case B
+			assert pageSize.isValue();
+			pc = caseMargins(doc, pageCount, rows, cols, pageSize.value(),
+			                 orientation, direction, preprocess, common);
+		} else {
+			// All are set, a conflict
+			logger.verbose("nup_caseConflict");
+			throw new IllegalStateException
+					("Conflicting settings: cell count, page size, margins and cell size are all set");
+		}
+		return pc;
+	}
 	
 	private PageControllers casePageSize(VirtualDocument doc,
 			int pageCount, final int rows, final int cols,
@@ -593,6 +641,92 @@ public class NUp extends AbstractImposable<LoosePages>
 		}
 	}
 	
+	/**
+	 * The pages of a document imposed in the sequential fill mode,
+	 * each of which is produced only when it is requested.
+	 */
+	static final class SequentialPages {
+		private final Preprocessor preprocessor;
+		private final GridPage.Builder builder;
+		private final PageSource source;
+		private final int cellsPerPage;
+		private final int size;
+		
+		/**
+		 * @param preprocessor the preprocessor for the source pages,
+		 *        or null if the pages should be placed unchanged
+		 */
+		private SequentialPages(Preprocessor preprocessor,
+				GridPage.Builder builder, PageSource source,
+				int cellsPerPage, int size) {
+			this.preprocessor = preprocessor;
+			this.builder = builder;
+			this.source = source;
+			this.cellsPerPage = cellsPerPage;
+			this.size = size;
+			// Resolve the page dimensions now, so that the builder
+			// is only read when the pages are requested
+			builder.build();
+		}
+		
+		/**
+		 * Returns the number of pages in the imposed document.
+		 */
+		int size() {
+			return size;
+		}
+		
+		/**
+		 * Produces the page at the given position in the imposed document.
+		 * @param index the index of the page, starting from 0
+		 * @return a new page
+		 */
+		VirtualPage getPage(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Page index out of bounds: " + index);
+			GridPage page = builder.build();
+			page.setNumber(index + 1);
+			int next = index * cellsPerPage;
+			for (PageletView pg : page.pagelets()) {
+				if (next >= source.size())
+					break;
+				VirtualPage vp = source.get(next++);
+				if (preprocessor != null)
+					vp = preprocessor.process(vp);
+				pg.setSource(vp);
+			}
+			return page.render();
+		}
+	}
+	
+	/**
+	 * An imposition task which, in addition to imposing the document
+	 * at once, can produce its pages one at a time.
+	 */
+	private final class SequentialTask implements ImpositionTask {
+		private final ImpositionTask task;
+		
+		private SequentialTask(ImpositionTask task) {
+			this.task = task;
+		}
+		
+		@Override
+		public String getName() {
+			return task.getName();
+		}
+		
+		@Override
+		public VirtualDocument process(List<VirtualDocument> sources) {
+			return task.process(sources);
+		}
+		
+		@Override
+		public ModuleData processToModuleData(List<VirtualDocument> sources) {
+			SequentialPages pages = imposeIncrementally(VirtualDocument.concatenate(sources));
+			return ModuleDataFactory.streaming(pages.size(), pages::getPage, null);
+		}
+	}
+	
 	private static class PageControllers {
 		private final Preprocessor preprocessor;
 		private final GridPage.Builder builder;
@@ -638,12 +772,33 @@ public class NUp extends AbstractImposable<LoosePages>
 	public ImpositionTask buildTask() {
 		if (logger.isDebugEnabled())
 			logger.debug("imposition_renderSettings", render);
+		ImpositionTask task;
 		if (render.isTwoSided()) {
 			FlipDirection flip = render.getFlipDirection();
-			return ImpositionTaskFactory.twoSided(build(), flip);
+			task = ImpositionTaskFactory.twoSided(build(), flip);
 		} else {
-			return ImpositionTaskFactory.oneSided(build());
+			task = ImpositionTaskFactory.oneSided(build());
 		}
+		if (isStreamable()) {
+			return new SequentialTask(task);
+		} else {
+			return task;
+		}
+	}
+	
+	/**
+	 * Checks whether the output of this imposition can be produced
+	 * one page at a time.
+	 * This is true for the sequential fill mode, unless the pages
+	 * need to be turned upside down in a two-sided document, because
+	 * the rotation is applied when rendering the whole book.
+	 * The other fill modes change the layout of the pages as they go
+	 * and are always imposed at once.
+	 */
+	private boolean isStreamable() {
+		return fillMode == FillMode.SEQUENTIAL
+				&& !(render.isTwoSided()
+				     && render.getFlipDirection() == FlipDirection.AROUND_X);
 	}
 
 	@Override
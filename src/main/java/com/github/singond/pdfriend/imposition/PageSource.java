@@ -1,6 +1,5 @@
 package com.github.singond.pdfriend.imposition;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -32,6 +31,9 @@ class PageSource implements Iterable<VirtualPage> {
 	/**
 	 * Constructs a new PageSource object which repeats the pages of the
 	 * given document.
+	 * The list of pages is not copied, which enables the pages to be
+	 * created lazily as they are requested; the list must not be modified
+	 * after the construction of this object.
 	 * @param pages the list of pages which are to be returned
 	 * @param repeatPage how many times to repeat each page before
 	 *        proceeding to next page
@@ -47,7 +49,7 @@ class PageSource implements Iterable<VirtualPage> {
 			throw new IllegalArgumentException(
 					"The number of document repetitions must be a positive number");
 		
-		this.pages = new ArrayList<>(pages);
+		this.pages = pages;
 		this.repeatPage = repeatPage;
 		this.repeatDoc = repeatDoc;
 	}
@@ -65,6 +67,23 @@ class PageSource implements Iterable<VirtualPage> {
 		return pages.size() * repeatPage * repeatDoc;
 	}
 
+	/**
+	 * Returns the page at the given position in the sequence of pages
+	 * provided by this {@code PageSource}.
+	 * This is the same page which would be returned by the iterator
+	 * at that position.
+	 * @param index the position of the page, starting from 0
+	 * @return the page at position {@code index}
+	 * @throws IndexOutOfBoundsException if the index is not smaller
+	 *         than {@link #size}
+	 */
+	public VirtualPage get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException(
+					"Page index: " + index + ", page count: " + size());
+		return pages.get(index % (pages.size() * repeatPage) / repeatPage);
+	}
+
 	@Override
 	public Iterator<VirtualPage> iterator() {
 		return new PageIterator();
@@ -0,0 +1,237 @@
+package com.github.singond.pdfriend.imposition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.book.ImpositionPlan;
+
+/**
+ * A cache of imposition plans stored in a directory on disk.
+ * <p>
+ * Each plan is stored in a separate file whose name is the SHA-256 digest
+ * of a key describing everything the plan depends on, such as the sheet
+ * and page dimensions and the folds. Two impositions with the same key
+ * therefore share the same plan, which is computed only once and then
+ * read from the cache in subsequent runs.
+ * <p>
+ * The cache holds at most a given number of plans. When storing a new plan
+ * would exceed this capacity, the least recently used plans are deleted.
+ * The time of last use is the modification time of the file, which is
+ * updated whenever a plan is read from the cache.
+ * <p>
+ * Failing to read or write the cache is never an error: a plan which
+ * cannot be read is computed again, and a plan which cannot be written
+ * is simply not cached.
+ * The plans are stored in the binary format of {@link ImpositionPlan},
+ * which is verified when reading, so that a damaged or forged file
+ * is rejected like any unreadable one.
+ * This class is safe for use by several processes sharing the same
+ * directory, because each file is written under a temporary name first
+ * and then moved to its final name.
+ *
+ * @author Singon
+ */
+public final class PlanCache {
+
+	/** The default maximum number of plans in the cache */
+	public static final int DEFAULT_CAPACITY = 256;
+	/** The extension of the plan files */
+	private static final String EXTENSION = ".plan";
+
+	/** The cache used by impositions, or null if caching is disabled */
+	private static volatile PlanCache defaultCache = null;
+
+	/** The directory of the cache */
+	private final Path directory;
+	/** The maximum number of plans in the cache */
+	private final int capacity;
+
+	private static ExtendedLogger logger = Log.logger(PlanCache.class);
+
+	/**
+	 * Constructs a new cache in the given directory.
+	 * The directory is created when the first plan is stored.
+	 *
+	 * @param directory the directory to hold the plans
+	 * @param capacity the maximum number of plans to be kept
+	 */
+	public PlanCache(Path directory, int capacity) {
+		if (directory == null)
+			throw new IllegalArgumentException("The cache directory must not be null");
+		if (capacity < 1)
+			throw new IllegalArgumentException("The cache capacity must be positive: " + capacity);
+		this.directory = directory;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the cache to be used by impositions.
+	 *
+	 * @return the cache, or null if plans are not to be cached
+	 */
+	public static PlanCache getDefault() {
+		return defaultCache;
+	}
+
+	/**
+	 * Sets the cache to be used by impositions.
+	 *
+	 * @param cache the cache, or null to disable caching
+	 */
+	public static void setDefault(PlanCache cache) {
+		defaultCache = cache;
+	}
+
+	/**
+	 * Returns the plan stored under the given key, computing and storing
+	 * it if it is not present in the cache.
+	 *
+	 * @param key the description of everything the plan depends on
+	 * @param planner the function to compute the plan
+	 * @return the plan for {@code key}
+	 */
+	public ImpositionPlan get(String key, Supplier<ImpositionPlan> planner) {
+		Path file = directory.resolve(digest(key) + EXTENSION);
+		ImpositionPlan plan = read(file);
+		if (plan != null) {
+			if (logger.isDebugEnabled())
+				logger.debug("planCache_hit", key, file);
+			return plan;
+		}
+		if (logger.isDebugEnabled())
+			logger.debug("planCache_miss", key);
+		plan = planner.get();
+		write(file, plan);
+		return plan;
+	}
+
+	/**
+	 * Reads a plan from the given file and marks it as recently used.
+	 *
+	 * @return the plan, or null if it cannot be read
+	 */
+	private ImpositionPlan read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file)))) {
+			ImpositionPlan plan = ImpositionPlan.readFrom(in);
+			if (in.read() != -1) {
+				throw new IOException("Unexpected data after the plan");
+			}
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return plan;
+		} catch (IOException e) {
+			logger.warn("planCache_readFailed", file, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a plan into the given file and evicts the least recently
+	 * used plans if the cache is full.
+	 */
+	private void write(Path file, ImpositionPlan plan) {
+		try {
+			Files.createDirectories(directory);
+			Path temp = Files.createTempFile(directory, "tmp", EXTENSION + ".part");
+			try {
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(temp)))) {
+					plan.writeTo(out);
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+			if (logger.isDebugEnabled())
+				logger.debug("planCache_stored", file);
+			evict();
+		} catch (IOException e) {
+			logger.warn("planCache_writeFailed", file, e.toString());
+		}
+	}
+
+	/**
+	 * Deletes the least recently used plans exceeding the capacity.
+	 */
+	private void evict() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> dir = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+			for (Path p : dir) {
+				files.add(p);
+			}
+		}
+		if (files.size() <= capacity) {
+			return;
+		}
+		List<Entry> entries = new ArrayList<>(files.size());
+		for (Path p : files) {
+			try {
+				entries.add(new Entry(p, Files.getLastModifiedTime(p).toMillis()));
+			} catch (IOException e) {
+				// Deleted by another process in the meantime
+			}
+		}
+		entries.sort(Comparator.comparingLong(e -> e.lastUsed));
+		for (int i = 0; i < entries.size() - capacity; i++) {
+			Path p = entries.get(i).file;
+			if (Files.deleteIfExists(p) && logger.isDebugEnabled())
+				logger.debug("planCache_evicted", p);
+		}
+	}
+
+	/**
+	 * Returns the hexadecimal SHA-256 digest of the given key.
+	 */
+	private static String digest(String key) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			byte[] hash = md.digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(2 * hash.length);
+			for (byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+				  .append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PlanCache [" + directory + ", capacity=" + capacity + "]";
+	}
+
+	/** A plan file with the time of its last use */
+	private static final class Entry {
+		private final Path file;
+		private final long lastUsed;
+
+		private Entry(Path file, long lastUsed) {
+			this.file = file;
+			this.lastUsed = lastUsed;
+		}
+	}
+}
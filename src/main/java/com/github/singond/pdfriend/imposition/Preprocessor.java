@@ -3,15 +3,21 @@ package com.github.singond.pdfriend.imposition;
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import com.github.singond.geometry.plane.RectangleFrame;
 import com.github.singond.geometry.plane.Rectangles;
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.document.PageGeometry;
+import com.github.singond.pdfriend.document.PageSizes;
 import com.github.singond.pdfriend.document.TransformableContents;
 import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.document.VirtualPage;
@@ -20,6 +26,7 @@ import com.github.singond.pdfriend.geometry.Length;
 import com.github.singond.pdfriend.geometry.LengthUnit;
 import com.github.singond.pdfriend.geometry.LengthUnits;
 import com.github.singond.pdfriend.geometry.Margins;
+import com.github.singond.pdfriend.util.WorkerPool;
 
 /**
  * Pre-processes pages of input document prior to imposition.
@@ -41,7 +48,10 @@ import com.github.singond.pdfriend.geometry.Margins;
  * cell to be used and then calculating the position of each page given with
  * respect to this cell.
  * <p>
- * This class is not thread-safe.
+ * This class is not thread-safe during its construction, but once
+ * constructed, an instance can be used to process pages from several
+ * threads concurrently. Long documents are processed in parallel
+ * by {@link #processDocument} and {@link #processAll}.
  *
  * @author Singon
  *
@@ -61,6 +71,12 @@ public final class Preprocessor {
 	 * of these documents. This responsibility is left to the client code.
 	 */
 	private final List<VirtualDocument> documents;
+	/**
+	 * The set of all pages in {@code documents}, compared by identity.
+	 * This is created when first needed, so that the pages of lazily
+	 * created documents are not created just to construct the preprocessor.
+	 */
+	private volatile Set<VirtualPage> pageIndex;
 	/**
 	 * The resolved dimensions of the cell (including margins).
 	 */
@@ -71,6 +87,8 @@ public final class Preprocessor {
 	private final Dimensions cellContent;
 	/**
 	 * The cache of resolved page positions.
+	 * This is thread-safe to allow processing pages concurrently.
+	 * The cached transformations must not be modified.
 	 */
 	private final Map<Dimensions, AffineTransform> positionsCache;
 	/**
@@ -89,7 +107,7 @@ public final class Preprocessor {
 		CellProperties cp = resolveCellDimensions(this.documents, this.settings);
 		this.cell = cp.cell;
 		this.cellContent = cp.cellContent;
-		this.positionsCache = new HashMap<>();
+		this.positionsCache = new ConcurrentHashMap<>();
 	}
 
 	Preprocessor(VirtualDocument document, Settings settings) {
@@ -100,12 +118,51 @@ public final class Preprocessor {
 	 * Checks whether this preprocessor was initialized with this page
 	 * in mind, ie. if this page is contained in the documents passed
 	 * to this {@code Preprocessor} during its initialization.
+	 * <p>
+	 * The pages are compared by identity. The first invocation of this
+	 * method or {@link #hasAllPages} builds an index of the pages
+	 * in linear time, after which each query takes constant time.
 	 * @param page the page to be tested
 	 * @return true if the page was present in the initialization documents
 	 */
 	public boolean hasPage(VirtualPage page) {
-		return documents.stream()
-				.anyMatch(doc -> doc.getPages().contains(page));
+		return pageIndex().contains(page);
+	}
+
+	/**
+	 * Checks whether all of the given pages are contained in the documents
+	 * passed to this {@code Preprocessor} during its initialization.
+	 * This is equivalent to calling {@link #hasPage} for each of the pages,
+	 * which makes checking a whole document take linear time.
+	 * @param pages the pages to be tested
+	 * @return true if every page was present in the initialization documents
+	 */
+	public boolean hasAllPages(Iterable<VirtualPage> pages) {
+		Set<VirtualPage> index = pageIndex();
+		for (VirtualPage page : pages) {
+			if (!index.contains(page)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the identity set of all pages in the initialization documents,
+	 * building it if necessary.
+	 */
+	private Set<VirtualPage> pageIndex() {
+		Set<VirtualPage> index = pageIndex;
+		if (index == null) {
+			Set<VirtualPage> pages = Collections.newSetFromMap(
+					new IdentityHashMap<>(VirtualDocument.totalLength(documents)));
+			for (VirtualDocument doc : documents) {
+				pages.addAll(doc.getPages());
+			}
+			index = Collections.unmodifiableSet(pages);
+			pageIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -140,19 +197,24 @@ public final class Preprocessor {
 				// Circumscribe the cell to the pages scaled by {@code settings.scale}
 				// and rotated by {@code settings.rotation}
 				logger.verbose("preprocess_cellSize_fromPageScale", settings.scale, rotation);
-				// TODO: Merge to one loop?
-				try {
-					halfHorizontalExtent = documents.stream()
-							.flatMap(doc -> doc.getPages().stream())
-							.mapToDouble(page -> Rectangles.getHalfHorizontalExtent(
-									page.getWidth(), page.getHeight(), rotation))
-							.max().getAsDouble();
-					halfVerticalExtent = documents.stream()
-							.flatMap(doc -> doc.getPages().stream())
-							.mapToDouble(page -> Rectangles.getHalfVerticalExtent(
-									page.getWidth(), page.getHeight(), rotation))
-							.max().getAsDouble();
-				} catch (NoSuchElementException e) {
+				// The extents depend only on the page size, so it is enough
+				// to visit each distinct page size once
+				halfHorizontalExtent = 0;
+				halfVerticalExtent = 0;
+				boolean empty = true;
+				for (VirtualDocument doc : documents) {
+					PageSizes sizes = doc.getPageSizes();
+					for (int i = 0; i < sizes.size(); i++) {
+						double width = sizes.getWidth(i);
+						double height = sizes.getHeight(i);
+						halfHorizontalExtent = Math.max(halfHorizontalExtent,
+								Rectangles.getHalfHorizontalExtent(width, height, rotation));
+						halfVerticalExtent = Math.max(halfVerticalExtent,
+								Rectangles.getHalfVerticalExtent(width, height, rotation));
+						empty = false;
+					}
+				}
+				if (empty) {
 					throw new NoSuchElementException(
 							"The documents are empty (they contain no pages): " + documents);
 				}
@@ -250,28 +312,90 @@ public final class Preprocessor {
 
 	/**
 	 * Processes all pages of the given document.
+	 * Long documents are processed in parallel.
+	 * <p>
+	 * Unlike {@link #process}, this verifies that all pages of the document
+	 * were present in the initialization data of this {@code Preprocessor},
+	 * because the cell dimensions were resolved from these pages only.
+	 * @throws IllegalArgumentException if the document contains a page
+	 *         which was not present in the initialization documents
 	 */
 	public VirtualDocument processDocument(VirtualDocument doc) {
-		VirtualDocument.Builder processed = new VirtualDocument.Builder();
-		for (VirtualPage pg : doc) {
-			processed.addPage(process(pg));
+		List<VirtualPage> pages = doc.getPages();
+		if (!hasAllPages(pages)) {
+			throw new IllegalArgumentException
+					("The document contains pages unknown to this preprocessor: " + doc);
 		}
-		return processed.build();
+		return new VirtualDocument(processPages(pages));
 	}
 
 	/**
 	 * Processes all pages of all documents given during initialization.
 	 * If more than one document was given in initialization, they are
 	 * concatenated in their order.
+	 * Long documents are processed in parallel.
 	 */
 	public VirtualDocument processAll() {
-		VirtualDocument.Builder processed = new VirtualDocument.Builder();
-		for (VirtualDocument doc : documents) {
-			for (VirtualPage pg : doc) {
-				processed.addPage(process(pg));
-			}
+		return new VirtualDocument(processPages(
+				VirtualDocument.concatenate(documents).getPages()));
+	}
+
+	/**
+	 * Returns a document containing the processed pages of all documents
+	 * given during initialization, where each page is processed only
+	 * when it is accessed for the first time.
+	 * If more than one document was given in initialization, they are
+	 * concatenated in their order.
+	 * <p>
+	 * This is preferable to {@link #processAll} when only some of the
+	 * pages are going to be used.
+	 * The page geometry of the returned document is known without
+	 * processing any pages, because all processed pages have the dimensions
+	 * of the cell.
+	 */
+	public VirtualDocument processAllLazily() {
+		final VirtualDocument source = VirtualDocument.concatenate(documents);
+		final int length = source.getLength();
+		return new VirtualDocument(length,
+				index -> process(source.getPage(index + 1)),
+				() -> cellGeometry(length), null);
+	}
+
+	/**
+	 * Returns the geometry of the given number of pages with the dimensions
+	 * of the cell.
+	 */
+	private PageGeometry cellGeometry(int length) {
+		double[] widths = new double[length];
+		double[] heights = new double[length];
+		Arrays.fill(widths, cell.width().in(UNIT));
+		Arrays.fill(heights, cell.height().in(UNIT));
+		return new PageGeometry(widths, heights);
+	}
+
+	/**
+	 * Processes the given pages, keeping their order.
+	 * If {@link WorkerPool#shouldSplit} the pages, they are processed
+	 * in parallel in the {@link WorkerPool}.
+	 *
+	 * @param pages the pages to be processed
+	 * @return the list of processed pages in the order of {@code pages}
+	 */
+	private List<VirtualPage> processPages(List<VirtualPage> pages) {
+		int size = pages.size();
+		VirtualPage[] processed;
+		if (WorkerPool.shouldSplit(size)) {
+			if (logger.isDebugEnabled())
+				logger.debug("preprocess_parallel", size);
+			processed = WorkerPool.invoke(() -> IntStream.range(0, size).parallel()
+					.mapToObj(i -> process(pages.get(i)))
+					.toArray(VirtualPage[]::new));
+		} else {
+			processed = IntStream.range(0, size)
+					.mapToObj(i -> process(pages.get(i)))
+					.toArray(VirtualPage[]::new);
 		}
-		return processed.build();
+		return Arrays.asList(processed);
 	}
 
 	/**
@@ -284,16 +408,18 @@ public final class Preprocessor {
 	 *         with x-axis pointing right and y-axis pointing up
 	 */
 	private AffineTransform getResolvedPositionInCell(Dimensions dims) {
-		if (positionsCache.containsKey(dims)) {
+		AffineTransform cached = positionsCache.get(dims);
+		if (cached != null) {
 			// Return cached value
 			if (logger.isDebugEnabled())
-				logger.debug("preprocess_position_cached", positionsCache.get(dims));
-			return positionsCache.get(dims);
+				logger.debug("preprocess_position_cached", cached);
+			return cached;
 		} else {
-			// Calculate it
+			// Calculate it; if another thread has done so in the meantime,
+			// use its result to keep a single instance per dimensions
 			AffineTransform position = resolvePositionInCell(dims);
-			positionsCache.put(dims, position);
-			return position;
+			cached = positionsCache.putIfAbsent(dims, position);
+			return cached != null ? cached : position;
 		}
 	}
 
@@ -2,7 +2,6 @@ package com.github.singond.pdfriend.imposition;
 
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
-import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.modules.Module;
 import com.github.singond.pdfriend.modules.ModuleData;
 import com.github.singond.pdfriend.modules.ModuleDataFactory;
@@ -38,9 +37,10 @@ public class SimpleTransform implements Module {
 	public ModuleData process(ModuleData data) throws ModuleException  {
 		logger.info("*** PDFriend Simple Transform ***");
 		
-		VirtualDocument document;
-		document = task.impose(data.asSingleDocument()).renderOneSided();
-		return ModuleDataFactory.of(document);
+		// Each page is transformed independently: produce them on demand
+		SimpleTransformTask.IncrementalPages pages
+				= task.imposeIncrementally(data.asSingleDocument());
+		return ModuleDataFactory.streaming(pages.size(), pages::getPage, null);
 	}
 
 	@Override
@@ -7,6 +7,7 @@ import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.book.LoosePages;
 import com.github.singond.pdfriend.book.SinglePage;
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
 import com.github.singond.pdfriend.geometry.Dimensions;
 import com.github.singond.pdfriend.geometry.LengthUnit;
 import com.github.singond.pdfriend.geometry.LengthUnits;
@@ -48,6 +49,36 @@ public class SimpleTransformTask extends AbstractImposable<LoosePages>
 	 * according to the current settings of this {@code SimpleTransformTask} object.
 	 */
 	private List<SinglePage> imposeAsPages(VirtualDocument doc) {
+		Preprocessor preprocessor = preparePreprocessor(doc);
+		SinglePage template = templatePage(preprocessor);
+		doc = preprocessor.processAll();
+		List<SinglePage> pages = buildPages(common, template, doc);
+		return pages;
+	}
+
+	/**
+	 * Prepares the imposition of the given virtual document page by page.
+	 * The returned object produces each output page only when it is
+	 * requested, preprocessing only the single source page it needs.
+	 * This way, the output can be consumed one page at a time without
+	 * keeping the whole document in memory.
+	 *
+	 * @param doc the document to be transformed
+	 * @return an object producing the pages of the transformed document
+	 */
+	IncrementalPages imposeIncrementally(VirtualDocument doc) {
+		Preprocessor preprocessor = preparePreprocessor(doc);
+		SinglePage template = templatePage(preprocessor);
+		PageSource pageSrc = pageSourceBuilder(common, doc).build();
+		logger.verbose("simple_constructing", pageSrc.size());
+		return new IncrementalPages(preprocessor, template, pageSrc);
+	}
+
+	/**
+	 * Resolves the settings of this task and constructs a preprocessor
+	 * for the given document.
+	 */
+	private Preprocessor preparePreprocessor(VirtualDocument doc) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("imposition_preprocessSettings", preprocess);
 			logger.debug("imposition_commonSettings", common);
@@ -70,14 +101,17 @@ public class SimpleTransformTask extends AbstractImposable<LoosePages>
 			preprocess.setResizing(Resizing.FIT);
 		}
 		
-		Preprocessor preprocessor = new Preprocessor(doc, preprocess);
+		return new Preprocessor(doc, preprocess);
+	}
+
+	/**
+	 * Constructs a blank page with the dimensions of the cell resolved
+	 * by the given preprocessor.
+	 */
+	private SinglePage templatePage(Preprocessor preprocessor) {
 		Dimensions pageSize = preprocessor.getResolvedCellDimensions();
-		SinglePage template = new SinglePage(pageSize.width().in(unit),
-		                                     pageSize.height().in(unit));
-		
-		doc = preprocessor.processAll();
-		List<SinglePage> pages = buildPages(common, template, doc);
-		return pages;
+		return new SinglePage(pageSize.width().in(unit),
+		                      pageSize.height().in(unit));
 	}
 	
 	/**
@@ -192,6 +226,42 @@ public class SimpleTransformTask extends AbstractImposable<LoosePages>
 		return impose(VirtualDocument.concatenate(sources));
 	}
 
+	/**
+	 * The pages of a transformed document, each of which is produced
+	 * only when it is requested.
+	 */
+	static final class IncrementalPages {
+		private final Preprocessor preprocessor;
+		private final SinglePage template;
+		private final PageSource source;
+
+		private IncrementalPages(Preprocessor preprocessor, SinglePage template,
+		                         PageSource source) {
+			this.preprocessor = preprocessor;
+			this.template = template;
+			this.source = source;
+		}
+
+		/**
+		 * Returns the number of pages in the transformed document.
+		 */
+		int size() {
+			return source.size();
+		}
+
+		/**
+		 * Produces the page at the given position in the transformed document.
+		 * @param index the index of the page, starting from 0
+		 * @return a new page
+		 */
+		VirtualPage getPage(int index) {
+			SinglePage page = new SinglePage(template);
+			page.setNumber(index + 1);
+			page.setSource(preprocessor.process(source.get(index)));
+			return page.render();
+		}
+	}
+
 	/**
 	 * Builds instances of {@code SimpleTransformTask} objects.
 	 *
@@ -26,22 +26,36 @@ class FileInput implements InputElement {
 		this(Paths.get(file));
 	}
 
-	/** Returns the input file */
-	public Path getFile() {
+	/**
+	 * Returns the input file.
+	 *
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IOException if the status of the file cannot be checked
+	 */
+	@Override
+	public Path getFile() throws FileNotFoundException, IOException {
+		checkFile();
 		return file;
 	}
 
 	/**
-	 * @throws FileNotFoundException if the file does not exist or if its
-	 *         status cannot be checked
-	 * @throws IOException if an error occurs when reading the file
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IOException if the status of the file cannot be checked
+	 *         or if an error occurs when reading the file
 	 */
 	@Override
 	public InputStream getInputStream() throws FileNotFoundException, IOException {
+		checkFile();
+		return Files.newInputStream(file);
+	}
+
+	/**
+	 * Verifies that the file exists before it is read.
+	 */
+	private void checkFile() throws FileNotFoundException, IOException {
 		if (Files.exists(file)) {
 			// The file is verified to exist
 			logger.info("readFile", file);
-			return Files.newInputStream(file);
 		} else if (Files.notExists(file)) {
 			// The file is verified not to exist
 			logger.error("File not found: {}", file);
@@ -2,6 +2,7 @@ package com.github.singond.pdfriend.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Represents a single piece of data input.
@@ -18,4 +19,17 @@ public interface InputElement {
 	public InputStream getInputStream() throws IOException;
 
 	public String getName();
+
+	/**
+	 * Returns the file containing the input data, if there is one.
+	 * This enables reading the data directly from the file instead
+	 * of the stream returned by {@link #getInputStream}.
+	 * The file is checked in the same way as when opening the stream.
+	 *
+	 * @return the file backing this input, or {@code null} if this input
+	 *         is not backed by a file
+	 * @throws IOException if the input is backed by a file which does not
+	 *         exist or whose status cannot be checked
+	 */
+	public Path getFile() throws IOException;
 }
@@ -1,8 +1,10 @@
 package com.github.singond.pdfriend.modules;
 
+import java.util.Iterator;
 import java.util.List;
 
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
 
 /**
  * The data being passed between modules.
@@ -15,4 +17,33 @@ public interface ModuleData {
 	public VirtualDocument asSingleDocument();
 	
 	public List<VirtualDocument> asMultipleDocuments();
+
+	/**
+	 * Returns the pages of all documents in this data one at a time,
+	 * in the order they appear in {@link #asMultipleDocuments}.
+	 * <p>
+	 * If this data is {@linkplain #isStreaming streaming}, the pages
+	 * are produced on demand and are not kept after they have been
+	 * returned, so that a consumer which processes the pages one by one
+	 * needs only as much memory as a single page.
+	 *
+	 * @return an iterator of the pages in this data
+	 */
+	public default Iterator<VirtualPage> pages() {
+		return asMultipleDocuments().stream()
+				.flatMap(doc -> doc.getPages().stream())
+				.iterator();
+	}
+
+	/**
+	 * Indicates whether the pages of this data are produced on demand.
+	 * If this returns {@code true}, consumers should prefer
+	 * {@link #pages} to the document views of this data, because
+	 * the document views keep every page once it has been produced.
+	 *
+	 * @return {@code true} if the pages are produced on demand
+	 */
+	public default boolean isStreaming() {
+		return false;
+	}
 }
@@ -2,8 +2,10 @@ package com.github.singond.pdfriend.modules;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
 
 public class ModuleDataFactory {
 
@@ -18,4 +20,21 @@ public class ModuleDataFactory {
 	public static ModuleData of(List<VirtualDocument> docs) {
 		return new MultiDocModuleData(docs);
 	}
+	
+	/**
+	 * Creates module data consisting of a single document, whose pages
+	 * are produced on demand by the given function.
+	 * When the pages are consumed one at a time using
+	 * {@link ModuleData#pages}, each page is produced only when it is
+	 * needed and is not kept afterwards.
+	 *
+	 * @param length the number of pages
+	 * @param pages the function to produce the page at the given index
+	 *        (note that the index is numbered from 0)
+	 * @param name the name of the document; may be null
+	 * @return a new streaming module data object
+	 */
+	public static ModuleData streaming(int length, IntFunction<VirtualPage> pages, String name) {
+		return new StreamingModuleData(length, pages, name);
+	}
 }
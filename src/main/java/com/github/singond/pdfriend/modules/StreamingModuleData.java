@@ -0,0 +1,82 @@
+package com.github.singond.pdfriend.modules;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+
+/**
+ * Module data consisting of a single document whose pages are produced
+ * on demand by a page generator.
+ * Iterating the pages with {@link #pages} does not keep the pages,
+ * while the document view keeps every page once it has been produced.
+ *
+ * @author Singon
+ */
+class StreamingModuleData implements ModuleData {
+
+	/** The number of pages */
+	private final int length;
+	/** The function to produce the page at the given index (from 0) */
+	private final IntFunction<VirtualPage> generator;
+	/** The name of the document; may be null */
+	private final String name;
+
+	/** The pages viewed as a document, created when first requested */
+	private VirtualDocument document;
+
+	StreamingModuleData(int length, IntFunction<VirtualPage> generator, String name) {
+		if (length < 0)
+			throw new IllegalArgumentException("The page count must not be negative: " + length);
+		if (generator == null)
+			throw new IllegalArgumentException("The page generator must not be null");
+		this.length = length;
+		this.generator = generator;
+		this.name = name;
+	}
+
+	@Override
+	public VirtualDocument asSingleDocument() {
+		if (document == null) {
+			document = new VirtualDocument(length, generator, name);
+		}
+		return document;
+	}
+
+	@Override
+	public List<VirtualDocument> asMultipleDocuments() {
+		return Collections.singletonList(asSingleDocument());
+	}
+
+	@Override
+	public Iterator<VirtualPage> pages() {
+		if (document != null) {
+			// The pages produced so far are kept anyway; do not produce them again
+			return document.iterator();
+		}
+		return new Iterator<VirtualPage>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < length;
+			}
+
+			@Override
+			public VirtualPage next() {
+				if (next >= length)
+					throw new NoSuchElementException("No more pages");
+				return generator.apply(next++);
+			}
+		};
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return true;
+	}
+}
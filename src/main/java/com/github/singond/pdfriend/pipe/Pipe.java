@@ -7,6 +7,8 @@ import java.util.List;
 import com.github.singond.pdfriend.ExtendedLogger;
 import com.github.singond.pdfriend.Log;
 import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.format.ParsingManager;
+import com.github.singond.pdfriend.format.RenderingManager;
 import com.github.singond.pdfriend.io.Input;
 import com.github.singond.pdfriend.io.Output;
 import com.github.singond.pdfriend.modules.Module;
@@ -34,17 +36,37 @@ public class Pipe {
 	}
 	
 	public void setInput(Input input) {
+		setInput(input, new ParsingManager());
+	}
+	
+	/**
+	 * Sets the input of this pipe, which will be parsed using the given
+	 * parsing manager. The manager is closed along with the pipe input.
+	 * @param input the input data
+	 * @param parsingManager the parsing manager to import the input
+	 */
+	public void setInput(Input input, ParsingManager parsingManager) {
 		if (executed) {
 			throw new IllegalStateException("This pipe has already been executed");
 		}
-		inputProvider = new SimpleInput(input);
+		inputProvider = new SimpleInput(input, parsingManager);
 	}
 	
 	public void setOutput(Output output) {
+		setOutput(output, new RenderingManager());
+	}
+	
+	/**
+	 * Sets the output of this pipe, which will be rendered using the given
+	 * rendering manager.
+	 * @param output the output to write the result into
+	 * @param renderingManager the rendering manager to render the output
+	 */
+	public void setOutput(Output output, RenderingManager renderingManager) {
 		if (executed) {
 			throw new IllegalStateException("This pipe has already been executed");
 		}
-		outputConsumer = new SimpleOutput(output);
+		outputConsumer = new SimpleOutput(output, renderingManager);
 	}
 	
 	@Deprecated
@@ -18,10 +18,11 @@ import com.github.singond.pdfriend.modules.ModuleDataFactory;
 class SimpleInput implements PipeInput {
 	private Input input;
 	private boolean consumed = false;
-	private final ParsingManager imgr = new ParsingManager();
+	private final ParsingManager imgr;
 	
-	SimpleInput(Input input) {
+	SimpleInput(Input input, ParsingManager parsingManager) {
 		this.input = input;
+		this.imgr = parsingManager;
 	}
 	
 	@Override
@@ -6,6 +6,7 @@ import com.github.singond.pdfriend.document.VirtualDocument;
 import com.github.singond.pdfriend.format.RenderingException;
 import com.github.singond.pdfriend.format.RenderingManager;
 import com.github.singond.pdfriend.io.Output;
+import com.github.singond.pdfriend.modules.ModuleData;
 
 /**
  * A pipe output provider which accepts all data as one unit.
@@ -14,10 +15,15 @@ import com.github.singond.pdfriend.io.Output;
 class SimpleOutput implements PipeOutput {
 	private Output output;
 	private boolean written = false;
-	private RenderingManager rmgr = new RenderingManager();
+	private RenderingManager rmgr;
 
 	SimpleOutput(Output output) {
+		this(output, new RenderingManager());
+	}
+
+	SimpleOutput(Output output, RenderingManager renderingManager) {
 		this.output = output;
+		this.rmgr = renderingManager;
 	}
 
 	@Override
@@ -25,9 +31,15 @@ class SimpleOutput implements PipeOutput {
 		if (written) {
 			throw new IllegalStateException("This output has already been written out");
 		}
-		List<VirtualDocument> docs = data.getModuleData().asMultipleDocuments();
+		ModuleData moduleData = data.getModuleData();
 		try {
-			rmgr.renderDocuments(docs, output);
+			if (moduleData.isStreaming()) {
+				// Write the pages as they are produced
+				rmgr.renderPages(moduleData.pages(), output);
+			} else {
+				List<VirtualDocument> docs = moduleData.asMultipleDocuments();
+				rmgr.renderDocuments(docs, output);
+			}
 		} catch (RenderingException e) {
 			throw new PipeException(e);
 		}
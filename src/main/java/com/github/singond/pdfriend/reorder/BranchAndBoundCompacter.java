@@ -0,0 +1,516 @@
+package com.github.singond.pdfriend.reorder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import com.github.singond.pdfriend.ExtendedLogger;
+import com.github.singond.pdfriend.Log;
+import com.github.singond.pdfriend.util.WorkerPool;
+
+/**
+ * An implementation of {@code Compacter} in which all sections are of equal
+ * size, and which searches for the best order of the objects within
+ * a given time limit.
+ * <p>
+ * The orders are compared by the number of split objects first,
+ * then by the number of sub-optimally split objects, and finally by their
+ * displacement, which is the sum of the distances of all objects from
+ * their original positions.
+ * <p>
+ * The search starts from the order found by
+ * {@link OptimizingFixedSectionCompacter} and explores all orders
+ * by branch and bound, discarding every partial order which cannot
+ * be completed into an order better than the best one found so far.
+ * Objects of equal size are interchangeable as far as splitting
+ * is concerned, and keeping them in their original order never increases
+ * the displacement, so the search only decides the size of the next object.
+ * The search is split into several tasks which run in parallel
+ * in the {@link WorkerPool}, sharing the best order found so far.
+ * When the time limit is reached, the best order found so far is used.
+ *
+ * @author Singon
+ * @param <T> the type of the objects being compacted
+ */
+class BranchAndBoundCompacter<T> implements SingleUseCompacter<T> {
+
+	/**
+	 * The minimum number of parallel tasks. If there are fewer distinct
+	 * sizes, each task fixes the sizes of the first two objects instead
+	 * of the first object only.
+	 */
+	private static final int MIN_TASKS = 16;
+	/** The number of nodes to visit between checking the time limit */
+	private static final int CLOCK_INTERVAL = 1024;
+
+	private final int sectionSize;
+
+	private final ToIntFunction<T> sizeFunction;
+
+	/** The time limit of the search in nanoseconds */
+	private final long timeLimit;
+
+	private int split = -1;
+
+	private int suboptSplit = -1;
+
+	private long displacement = -1;
+
+	/** Indicates that this object has already been used. */
+	private boolean used;
+
+	private static ExtendedLogger logger = Log.logger(BranchAndBoundCompacter.class);
+
+	/**
+	 * Constructs a new compacter which searches for the best order
+	 * for up to the given time.
+	 *
+	 * @param sectionSize the size of the sections
+	 * @param sizeFunction the function to provide the size of an object
+	 * @param timeLimit the maximum time of the search in milliseconds
+	 */
+	public BranchAndBoundCompacter(int sectionSize,
+			ToIntFunction<T> sizeFunction, long timeLimit) {
+		if (sectionSize < 1) {
+			throw new IllegalArgumentException
+					("Section size must be a positive number");
+		} else if (sizeFunction == null) {
+			throw new NullPointerException("The size function is null");
+		} else if (timeLimit < 0) {
+			throw new IllegalArgumentException
+					("The time limit must not be negative: " + timeLimit);
+		}
+		this.sectionSize = sectionSize;
+		this.sizeFunction = sizeFunction;
+		this.timeLimit = TimeUnit.MILLISECONDS.toNanos(timeLimit);
+	}
+
+	@Override
+	public List<T> process(Collection<T> objects) {
+		if (used) {
+			throw new IllegalStateException
+					("This compacter cannot be used more than once");
+		} else if (objects == null) {
+			throw new NullPointerException("The collection of objects is null");
+		} else if (objects.isEmpty()) {
+			return Collections.emptyList();
+		}
+		used = true;
+		List<T> input = new ArrayList<>(objects);
+		int[] sizes = new int[input.size()];
+		for (int i = 0; i < sizes.length; i++) {
+			T t = input.get(i);
+			if (t == null) {
+				throw new NullPointerException("The element to be added is null");
+			}
+			sizes[i] = sizeFunction.applyAsInt(t);
+			if (sizes[i] < 0) {
+				throw new IllegalArgumentException("Size must not be negative");
+			}
+		}
+
+		Solution best = new Search(sizes).run(initialOrder(sizes));
+		split = best.split;
+		suboptSplit = best.subopt;
+		displacement = best.displacement;
+
+		List<T> result = new ArrayList<>(sizes.length);
+		for (int i : best.order) {
+			result.add(input.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the order found by {@code OptimizingFixedSectionCompacter},
+	 * as indices into the given sizes.
+	 */
+	private int[] initialOrder(int[] sizes) {
+		List<Integer> indices = new ArrayList<>(sizes.length);
+		for (int i = 0; i < sizes.length; i++) {
+			indices.add(i);
+		}
+		List<Integer> placed = new OptimizingFixedSectionCompacter<Integer>
+				(sectionSize, i -> sizes[i]).process(indices);
+		return placed.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@Override
+	public int splitObjects() {
+		if (split == -1)
+			throw new IllegalStateException("'process()' must be called first");
+		else return split;
+	}
+
+	@Override
+	public int suboptimSplitObjects() {
+		if (suboptSplit == -1)
+			throw new IllegalStateException("'process()' must be called first");
+		else return suboptSplit;
+	}
+
+	/**
+	 * Returns the sum of the distances of all objects from their original
+	 * positions.
+	 *
+	 * @return the displacement of the objects
+	 */
+	public long displacement() {
+		if (displacement == -1)
+			throw new IllegalStateException("'process()' must be called first");
+		else return displacement;
+	}
+
+	/**
+	 * A complete order of the objects with its cost.
+	 */
+	private static final class Solution {
+		/** The indices of the objects in their new order */
+		private final int[] order;
+		private final int split;
+		private final int subopt;
+		private final long displacement;
+
+		private Solution(int[] order, int split, int subopt, long displacement) {
+			this.order = order;
+			this.split = split;
+			this.subopt = subopt;
+			this.displacement = displacement;
+		}
+
+		/**
+		 * Checks whether this solution is worse than the given cost.
+		 */
+		private boolean worseThan(int split, int subopt, long displacement) {
+			if (this.split != split)
+				return this.split > split;
+			else if (this.subopt != subopt)
+				return this.subopt > subopt;
+			else
+				return this.displacement > displacement;
+		}
+	}
+
+	/**
+	 * The state of the search shared by all tasks.
+	 */
+	private final class Search {
+		/** The sizes of the objects */
+		private final int[] sizes;
+		/** The distinct sizes of the objects in ascending order */
+		private final int[] groupSize;
+		/** The indices of the objects of each size, in ascending order */
+		private final int[][] groupMembers;
+		/** The best solution found so far */
+		private final AtomicReference<Solution> best = new AtomicReference<>();
+		/** The number of nodes visited */
+		private final AtomicLong nodes = new AtomicLong();
+		/** The time after which the search stops */
+		private long deadline;
+		/** Set when the search has been stopped by the time limit */
+		private volatile boolean stopped;
+
+		private Search(int[] sizes) {
+			this.sizes = sizes;
+			TreeMap<Integer, List<Integer>> groups = new TreeMap<>();
+			for (int i = 0; i < sizes.length; i++) {
+				groups.computeIfAbsent(sizes[i], s -> new ArrayList<>()).add(i);
+			}
+			groupSize = new int[groups.size()];
+			groupMembers = new int[groups.size()][];
+			int g = 0;
+			for (List<Integer> members : groups.values()) {
+				groupSize[g] = sizes[members.get(0)];
+				groupMembers[g] = members.stream().mapToInt(Integer::intValue).toArray();
+				g++;
+			}
+		}
+
+		/**
+		 * Searches for the best solution, starting from the given order.
+		 */
+		private Solution run(int[] initial) {
+			long start = System.nanoTime();
+			deadline = start + timeLimit;
+			Solution first = evaluate(initial);
+			best.set(first);
+
+			List<int[]> tasks = new ArrayList<>();
+			new Worker().prefixes(new int[1], 0, tasks);
+			if (tasks.size() < MIN_TASKS && sizes.length > 1) {
+				tasks.clear();
+				new Worker().prefixes(new int[2], 0, tasks);
+			}
+			if (!first.worseThan(unavoidableSplits(), 0, 0)) {
+				// The initial solution cannot be improved
+				tasks.clear();
+			}
+			WorkerPool.invoke(() -> {
+				IntStream.range(0, tasks.size()).parallel()
+						.forEach(t -> new Worker().explore(tasks.get(t)));
+				return null;
+			});
+
+			Solution result = best.get();
+			if (logger.isDebugEnabled())
+				logger.debug("compact_search", nodes.get(),
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+						stopped ? "stopped" : "complete",
+						first.split, first.subopt, first.displacement,
+						result.split, result.subopt, result.displacement);
+			return result;
+		}
+
+		/**
+		 * Returns the number of objects larger than a section,
+		 * which are split in any order.
+		 */
+		private int unavoidableSplits() {
+			int count = 0;
+			for (int size : sizes) {
+				if (size > sectionSize) count++;
+			}
+			return count;
+		}
+
+		/**
+		 * Calculates the cost of the given complete order.
+		 */
+		private Solution evaluate(int[] order) {
+			int split = 0;
+			int subopt = 0;
+			long displacement = 0;
+			int length = 0;
+			for (int position = 0; position < order.length; position++) {
+				int size = sizes[order[position]];
+				int startSect = length / sectionSize;
+				length += size;
+				int endSect = (length - 1) / sectionSize;
+				int sectsSpan = endSect + 1 - startSect;
+				int minSectsSpan = (size + sectionSize - 1) / sectionSize;
+				if (sectsSpan > 1) split++;
+				if (sectsSpan > minSectsSpan) subopt++;
+				displacement += Math.abs(position - order[position]);
+			}
+			return new Solution(order, split, subopt, displacement);
+		}
+
+		/**
+		 * Replaces the best solution with the given one if it is better.
+		 */
+		private void offer(Solution solution) {
+			Solution current;
+			do {
+				current = best.get();
+				if (!current.worseThan(solution.split, solution.subopt,
+						solution.displacement)) {
+					return;
+				}
+			} while (!best.compareAndSet(current, solution));
+		}
+
+		/**
+		 * The state of one task of the search, which builds the order
+		 * from the front by appending one object at a time.
+		 */
+		private final class Worker {
+			/** The objects in the partial order */
+			private final int[] order = new int[sizes.length];
+			/** For each size, the number of its objects already placed */
+			private final int[] used = new int[groupSize.length];
+			/** Marks the objects already placed */
+			private final boolean[] placed = new boolean[sizes.length];
+			/** The candidate sizes at each depth, in the order of trying */
+			private final int[][] candidates = new int[sizes.length][];
+			/** The number of unplaced objects larger than a section */
+			private int large = unavoidableSplits();
+			/** The number of unplaced objects preceding the current position */
+			private int behind;
+			/** The sum of original positions of these objects */
+			private long behindSum;
+			/** The number of nodes visited since the last clock check */
+			private int visited;
+
+			/**
+			 * Collects all sequences of sizes of the given length.
+			 */
+			private void prefixes(int[] prefix, int depth, List<int[]> result) {
+				if (depth == prefix.length) {
+					result.add(prefix.clone());
+					return;
+				}
+				for (int g = 0; g < groupSize.length; g++) {
+					if (used[g] < groupMembers[g].length) {
+						used[g]++;
+						prefix[depth] = g;
+						prefixes(prefix, depth + 1, result);
+						used[g]--;
+					}
+				}
+			}
+
+			/**
+			 * Explores all orders starting with objects of the given sizes.
+			 */
+			private void explore(int[] prefix) {
+				int length = 0;
+				int split = 0;
+				int subopt = 0;
+				long displacement = 0;
+				for (int depth = 0; depth < prefix.length; depth++) {
+					int g = prefix[depth];
+					int size = groupSize[g];
+					if (splits(length, size)) split++;
+					if (suboptimal(length, size)) subopt++;
+					displacement += place(depth, g);
+					length += size;
+				}
+				search(prefix.length, length, split, subopt, displacement);
+			}
+
+			/**
+			 * Explores all completions of the current partial order.
+			 *
+			 * @param depth the number of objects placed
+			 * @param length the total size of the objects placed
+			 */
+			private void search(int depth, int length, int split, int subopt,
+					long displacement) {
+				if (stopped) {
+					return;
+				} else if (++visited == CLOCK_INTERVAL) {
+					nodes.addAndGet(visited);
+					visited = 0;
+					if (System.nanoTime() - deadline > 0) {
+						stopped = true;
+						return;
+					}
+				}
+				if (depth == sizes.length) {
+					nodes.addAndGet(visited);
+					visited = 0;
+					offer(new Solution(order.clone(), split, subopt, displacement));
+					return;
+				}
+				// Each remaining object is placed at the current position or later
+				long bound = displacement + behind * (long) depth - behindSum;
+				if (!best.get().worseThan(split + large, subopt, bound)) {
+					return;
+				}
+
+				// Try unsplit objects first, then those closest to their original place
+				int[] next = candidates[depth];
+				if (next == null) {
+					next = candidates[depth] = new int[groupSize.length];
+				}
+				int count = 0;
+				for (int g = 0; g < groupSize.length; g++) {
+					if (used[g] < groupMembers[g].length) {
+						int c = count++;
+						while (c > 0 && before(g, next[c - 1], length)) {
+							next[c] = next[c - 1];
+							c--;
+						}
+						next[c] = g;
+					}
+				}
+				for (int c = 0; c < count; c++) {
+					int g = next[c];
+					int size = groupSize[g];
+					int s = splits(length, size) ? 1 : 0;
+					int o = suboptimal(length, size) ? 1 : 0;
+					long d = place(depth, g);
+					search(depth + 1, length + size, split + s, subopt + o,
+							displacement + d);
+					unplace(depth, g);
+				}
+			}
+
+			/**
+			 * Checks whether the next object of size {@code g} should be tried
+			 * before the next object of size {@code h}.
+			 */
+			private boolean before(int g, int h, int length) {
+				boolean gSplits = splits(length, groupSize[g]);
+				boolean hSplits = splits(length, groupSize[h]);
+				if (gSplits != hSplits) {
+					return hSplits;
+				}
+				return groupMembers[g][used[g]] < groupMembers[h][used[h]];
+			}
+
+			/**
+			 * Places the next object of the given size at the given position.
+			 *
+			 * @return the distance of the object from its original position
+			 */
+			private long place(int position, int g) {
+				int object = groupMembers[g][used[g]++];
+				order[position] = object;
+				placed[object] = true;
+				if (groupSize[g] > sectionSize) large--;
+				if (object < position) {
+					behind--;
+					behindSum -= object;
+				}
+				// The object originally at this position is now behind
+				if (!placed[position]) {
+					behind++;
+					behindSum += position;
+				}
+				return Math.abs(position - object);
+			}
+
+			/**
+			 * Reverts placing the object at the given position.
+			 */
+			private void unplace(int position, int g) {
+				if (!placed[position]) {
+					behind--;
+					behindSum -= position;
+				}
+				int object = groupMembers[g][--used[g]];
+				placed[object] = false;
+				if (groupSize[g] > sectionSize) large++;
+				if (object < position) {
+					behind++;
+					behindSum += object;
+				}
+			}
+		}
+
+		/**
+		 * Checks whether an object of the given size starting after
+		 * the given length spans more than one section.
+		 */
+		private boolean splits(int length, int size) {
+			int startSect = length / sectionSize;
+			int endSect = (length + size - 1) / sectionSize;
+			return endSect > startSect;
+		}
+
+		/**
+		 * Checks whether an object of the given size starting after
+		 * the given length spans more sections than necessary.
+		 */
+		private boolean suboptimal(int length, int size) {
+			int startSect = length / sectionSize;
+			int endSect = (length + size - 1) / sectionSize;
+			int minSectsSpan = (size + sectionSize - 1) / sectionSize;
+			return endSect + 1 - startSect > minSectsSpan;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BranchAndBoundCompacter [sectionSize=" + sectionSize
+				+ ", timeLimit=" + TimeUnit.NANOSECONDS.toMillis(timeLimit) + " ms]";
+	}
+}
@@ -1,85 +1,223 @@
 package com.github.singond.pdfriend.reorder;
 
-import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A helper object for combining numbers into a given sum,
  * essentially solving a variation of the so-called "coin change problem".
+ * <p>
+ * The values are given either as a list or as a vector of counts, whose
+ * element at index {@code v} is the number of values equal to {@code v}.
+ * The problem is solved by dynamic programming over the sums reachable
+ * by the values: for the distinct values sorted in descending order,
+ * the solver builds a table whose {@code k}-th row is a bit set of all sums
+ * which can be made using only the values from the {@code k}-th on.
+ * Each row is obtained from the next one by shifting and or-ing it
+ * once for each bit of the count of the {@code k}-th value, making
+ * the size of the table proportional to the number of distinct values,
+ * rather than the number of values.
+ * <p>
+ * The table depends only on the values, and covers all sums up to the sum
+ * of the values, so it is kept and reused for subsequent calls with
+ * the same values, which only need to reconstruct the solution.
+ * <p>
+ * Where more solutions exist, the one with the largest values is chosen:
+ * the largest value is taken as many times as possible in any solution,
+ * and so on with the rest of the sum.
  *
  * @author Singon
  */
 class CoinChangeSolver {
 
+	/** The counts of the values of the current table */
+	private int[] counts = new int[0];
+	/** The distinct positive values of the current table, in descending order */
+	private int[] values = new int[0];
+	/** The number of bits of the sums in each row of the table */
+	private int width = -1;
+	/**
+	 * The table of reachable sums: bit {@code s} of row {@code k} is set
+	 * iff {@code s} can be made of the values from index {@code k} on.
+	 * Row {@code values.length} contains the empty sum only.
+	 */
+	private long[][] reachable = new long[0][];
+
+	/**
+	 * Picks some of the given values so that their sum equals the given sum.
+	 * Each value can be used at most once, but the same number can appear
+	 * among the values several times.
+	 *
+	 * @param sum the required sum
+	 * @param values the values to choose from, none of which is negative
+	 * @return the values picked in ascending order, or null if there is
+	 *         no solution
+	 */
 	public List<Integer> combineToSum(int sum, List<Integer> values) {
-		values = new ArrayList<>(values);
-		Collections.sort(values);
-		Collections.reverse(values);
-		return combine(sum, values);
+		int max = 0;
+		for (int v : values) {
+			if (v < 0) {
+				throw new IllegalArgumentException("The values must not be negative: " + v);
+			}
+			max = Math.max(max, v);
+		}
+		int[] counts = new int[max + 1];
+		for (int v : values) {
+			counts[v]++;
+		}
+		int[] picked = combineCounts(sum, counts);
+		if (picked == null) {
+			return null;
+		}
+		List<Integer> result = new ArrayList<>();
+		for (int v = 0; v < picked.length; v++) {
+			for (int i = 0; i < picked[v]; i++) {
+				result.add(v);
+			}
+		}
+		return result;
 	}
 
-	// Requires 'values' to be sorted
-	private List<Integer> combine(int sum, List<Integer> values) {
-		if (sum == 0) {
-			// Solution found: return empty list
-			// The list must be mutable because solution will be written to it
-			return new ArrayList<>();
-		} else if (sum < 0) {
-			// No solution for picked values: return null to indicate this
+	/**
+	 * Picks some of the given values so that their sum equals the given sum.
+	 * The values are given by their counts: {@code counts[v]} is the number
+	 * of values equal to {@code v} available.
+	 *
+	 * @param sum the required sum
+	 * @param counts the number of available values of each size,
+	 *        none of which is negative
+	 * @return the number of values of each size picked, as an array
+	 *         of the same length as {@code counts}, or null if there is
+	 *         no solution
+	 */
+	public int[] combineCounts(int sum, int[] counts) {
+		if (sum < 0) {
+			return null;
+		} else if (sum == 0) {
+			return new int[counts.length];
+		}
+		prepare(counts);
+		if (sum >= width || !isSet(reachable[0], sum)) {
 			return null;
 		}
-		int index = 0;
-		for (int val : values) {
-			// Add the value and solve the rest without the added value
-			List<Integer> rem = combine(sum - val, new GapList<>(values, index));
-			if (rem != null) {
-				rem.add(Integer.valueOf(val));
-				return rem;
+
+		// Take every value as many times as leaves a remainder reachable by the rest
+		int[] result = new int[counts.length];
+		int rest = sum;
+		for (int k = 0; k < values.length && rest > 0; k++) {
+			int v = values[k];
+			for (int n = Math.min(counts[v], rest / v); n > 0; n--) {
+				if (isSet(reachable[k + 1], rest - n * v)) {
+					result[v] = n;
+					rest -= n * v;
+					break;
+				}
 			}
-			index++;
 		}
-		return null;
+		assert rest == 0 : rest;
+		return result;
 	}
 
 	/**
-	 * A view of a list with one element removed.
-	 *
-	 * @author Singon
-	 * @param <T> the type of elements contained in this list
+	 * Builds the table of reachable sums for the given values,
+	 * unless it has already been built.
 	 */
-	private static class GapList<T> extends AbstractList<T> {
-		/** Backing list. */
-		private final List<T> wholeList;
-		/** Index of the missing element in the backing list. */
-		private final int missingElement;
+	private void prepare(int[] counts) {
+		if (sameCounts(counts, this.counts)) {
+			return;
+		}
+		long total = 0;
+		int distinct = 0;
+		for (int v = 0; v < counts.length; v++) {
+			int c = counts[v];
+			if (c < 0) {
+				throw new IllegalArgumentException("The counts must not be negative: " + c);
+			}
+			total += (long) v * c;
+			if (v > 0 && c > 0) distinct++;
+		}
+		if (total >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The sum of the values is too large: " + total);
+		}
+		int[] values = new int[distinct];
+		for (int v = counts.length - 1, k = 0; v > 0; v--) {
+			if (counts[v] > 0) values[k++] = v;
+		}
+		int n = values.length;
+		int bits = (int) total + 1;
+		int words = (bits + 63) >>> 6;
 
-		GapList(List<T> list, int missingElement) {
-			if (list == null) {
-				throw new NullPointerException("The list is null");
-			} else if (list.isEmpty()) {
-				throw new IllegalArgumentException("The list is empty");
+		// Reuse the rows of the previous table where they are large enough
+		if (reachable.length < n + 1) {
+			reachable = Arrays.copyOf(reachable, n + 1);
+		}
+		for (int k = 0; k <= n; k++) {
+			if (reachable[k] == null || reachable[k].length < words) {
+				reachable[k] = new long[words];
 			}
-			this.wholeList = list;
-			this.missingElement = missingElement;
 		}
 
-		@Override
-		public T get(int index) {
-			if (index >= size()) {
-				throw new IndexOutOfBoundsException
-						("index: " + index + ", size: " + size());
-			} else if (index < missingElement) {
-				return wholeList.get(index);
-			} else {
-				return wholeList.get(index + 1);
+		long[] last = reachable[n];
+		Arrays.fill(last, 0, words, 0L);
+		last[0] = 1L;
+		for (int k = n - 1; k >= 0; k--) {
+			// Any number of copies up to the count is a sum of distinct parts
+			// 1, 2, 4, ... and the remainder
+			int v = values[k];
+			long[] source = reachable[k + 1];
+			for (int left = counts[v], part = 1; left > 0; part <<= 1) {
+				int copies = Math.min(part, left);
+				shiftOr(source, copies * v, reachable[k], words);
+				source = reachable[k];
+				left -= copies;
 			}
 		}
+		this.counts = counts.clone();
+		this.values = values;
+		width = bits;
+	}
 
-		@Override
-		public int size() {
-			return wholeList.size() - 1;
+	/**
+	 * Checks whether the given vectors of counts are equal,
+	 * disregarding any trailing zeros.
+	 */
+	private static boolean sameCounts(int[] a, int[] b) {
+		int common = Math.min(a.length, b.length);
+		for (int i = 0; i < common; i++) {
+			if (a[i] != b[i]) return false;
+		}
+		for (int i = common; i < a.length; i++) {
+			if (a[i] != 0) return false;
 		}
+		for (int i = common; i < b.length; i++) {
+			if (b[i] != 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Sets {@code target} to {@code source | (source << shift)},
+	 * considering only the first {@code words} words.
+	 * The arrays may be the same array.
+	 */
+	private static void shiftOr(long[] source, int shift, long[] target, int words) {
+		int wordShift = shift >>> 6;
+		int bitShift = shift & 63;
+		for (int w = words - 1; w >= 0; w--) {
+			long shifted = 0;
+			int from = w - wordShift;
+			if (from >= 0) {
+				shifted = source[from] << bitShift;
+				if (bitShift != 0 && from > 0) {
+					shifted |= source[from - 1] >>> (64 - bitShift);
+				}
+			}
+			target[w] = source[w] | shifted;
+		}
+	}
+
+	private static boolean isSet(long[] row, int bit) {
+		return (row[bit >>> 6] & (1L << (bit & 63))) != 0;
 	}
 }
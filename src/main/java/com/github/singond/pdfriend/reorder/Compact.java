@@ -24,6 +24,25 @@ public class Compact implements Reorderable {
 				(sectionLength, d -> d.getLength());
 	}
 
+	/**
+	 * Constructs a new compacting task which searches for the best order
+	 * of the documents for up to the given time.
+	 *
+	 * @param sectionLength the number of pages in one section
+	 * @param searchTime the maximum time of the search in milliseconds;
+	 *        if zero, the order is found without searching
+	 */
+	public Compact(int sectionLength, long searchTime) {
+		this.sectionLength = sectionLength;
+		if (searchTime > 0) {
+			compacter = new BranchAndBoundCompacter<>
+					(sectionLength, d -> d.getLength(), searchTime);
+		} else {
+			compacter = new OptimizingFixedSectionCompacter<>
+					(sectionLength, d -> d.getLength());
+		}
+	}
+
 	@Override
 	public String getName() {
 		return NAME;
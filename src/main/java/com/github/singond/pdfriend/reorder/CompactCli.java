@@ -18,6 +18,12 @@ class CompactCli implements ReorderableCli<Compact> {
 	// TODO: Enable specifying a list of numbers
 	private int sectionLength = -1;
 
+	@Parameter(names="--compact-time",
+			description="Searches for a better order of the documents for up to "
+					+ "the given number of milliseconds",
+			validateWith = PositiveInteger.class)
+	private int searchTime = 0;
+
 	@Override
 	public void postParse() throws ParameterConsistencyException {
 		// Do nothing
@@ -30,6 +36,6 @@ class CompactCli implements ReorderableCli<Compact> {
 
 	@Override
 	public Compact getReorderable() {
-		return new Compact(sectionLength);
+		return new Compact(sectionLength, searchTime);
 	}
 }
@@ -127,12 +127,13 @@ class GreedyFixedSectionCompacter<T> implements Compacter<T> {
 	 * equal to the size of n sections, place it now.
 	 */
 	private boolean tryFlush(int sects) {
-		List<Integer> sizes = unplaced.numbers();
-		List<Integer> sizeComb = combiner.combineToSum(sects * sectionSize, sizes);
+		int[] sizeComb = combiner.combineCounts(sects * sectionSize, unplaced.counts());
 		if (sizeComb != null) {
-			List<Element> toBePlaced = new ArrayList<>(sizeComb.size());
-			for (int length : sizeComb) {
-				toBePlaced.add(unplaced.nextInQueue(length));
+			List<Element> toBePlaced = new ArrayList<>();
+			for (int length = 0; length < sizeComb.length; length++) {
+				for (int i = 0; i < sizeComb[length]; i++) {
+					toBePlaced.add(unplaced.nextInQueue(length));
+				}
 			}
 			Collections.sort(toBePlaced);
 			for (Element e : toBePlaced) {
@@ -2,25 +2,42 @@ package com.github.singond.pdfriend.reorder;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.Queue;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
- * A collection of queues identified by numbers.
+ * A collection of queues identified by non-negative numbers.
+ * <p>
+ * The queues are kept in an array indexed by their number, together with
+ * the number of elements in each queue and in all queues together.
+ * This makes the sizes available in constant time, and allows handing
+ * the sizes of all queues over as a vector of counts.
+ * The numbers are expected to be small, such as lengths of documents,
+ * because the array extends up to the largest number used.
  *
  * @param <T> the type of objects stored in the queues
  */
 class NumberedQueue<T> {
 
-	private final SortedMap<Integer, Queue<T>> data;
+	/** The queues indexed by their number; null for a queue never used */
+	private ArrayDeque<T>[] queues;
+
+	/** The number of elements in each queue */
+	private int[] counts;
+
+	/** The number of elements in all queues */
+	private int size;
 
 	public NumberedQueue() {
-		data = new TreeMap<>();
+		queues = newArray(0);
+		counts = new int[0];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ArrayDeque<T>[] newArray(int length) {
+		return (ArrayDeque<T>[]) new ArrayDeque<?>[length];
 	}
 
 	/**
@@ -34,26 +51,36 @@ class NumberedQueue<T> {
 	public boolean add(T element, int queueNumber) {
 		if (element == null) {
 			throw new NullPointerException("The object being added is null");
+		} else if (queueNumber < 0) {
+			throw new IllegalArgumentException
+					("The queue number must not be negative: " + queueNumber);
+		}
+		if (queueNumber >= queues.length) {
+			int length = Math.max(queueNumber + 1, 2 * queues.length);
+			queues = Arrays.copyOf(queues, length);
+			counts = Arrays.copyOf(counts, length);
 		}
-		return getBucket(queueNumber).add(element);
+		ArrayDeque<T> queue = queues[queueNumber];
+		if (queue == null) {
+			queue = new ArrayDeque<>();
+			queues[queueNumber] = queue;
+		}
+		queue.add(element);
+		counts[queueNumber]++;
+		size++;
+		return true;
 	}
 
 	public int queueSize(int queueNumber) {
-		if (data.containsKey(queueNumber)) {
-			return getBucket(queueNumber).size();
+		if (queueNumber >= 0 && queueNumber < counts.length) {
+			return counts[queueNumber];
 		} else {
 			return 0;
 		}
 	}
 
 	public int size() {
-		int total = 0;
-		for (Queue<T> q : data.values()) {
-			if (q != null) {
-				total += q.size();
-			}
-		}
-		return total;
+		return size;
 	}
 
 	/**
@@ -63,16 +90,30 @@ class NumberedQueue<T> {
 	 * @return a list of all elements represented by their associated number
 	 */
 	public List<Integer> numbers() {
-		List<Integer> result = new ArrayList<>(size());
-		for (Entry<Integer, Queue<T>> e : data.entrySet()) {
-			Integer number = e.getKey();
-			for (int i = 0; i < e.getValue().size(); i++) {
+		List<Integer> result = new ArrayList<>(size);
+		for (int number = 0; number < counts.length; number++) {
+			for (int i = 0; i < counts[number]; i++) {
 				result.add(number);
 			}
 		}
 		return result;
 	}
 
+	/**
+	 * Returns the number of elements in each queue as an array indexed
+	 * by the number of the queue.
+	 * The array may be longer than the largest number used, in which case
+	 * the remaining elements are zero.
+	 * <p>
+	 * The array is owned by this object and reflects any later changes
+	 * to the queues, so it must not be modified.
+	 *
+	 * @return the sizes of all queues
+	 */
+	int[] counts() {
+		return counts;
+	}
+
 	/**
 	 * Returns the next object in the given queue.
 	 *
@@ -81,34 +122,28 @@ class NumberedQueue<T> {
 	 * @throws NoSuchElementException if queue {@code queueNumber} is empty
 	 */
 	public T nextInQueue(int queueNumber) {
-		if (!data.containsKey(queueNumber)) {
+		if (queueSize(queueNumber) == 0) {
 			throw new NoSuchElementException("No list of length " + queueNumber);
 		}
-		return getBucket(queueNumber).remove();
+		counts[queueNumber]--;
+		size--;
+		return queues[queueNumber].remove();
 	}
 
 	/**
 	 * Returns all non-null elements, iterating the queues in ascending order.
 	 */
 	public List<T> getAllAscending() {
-		List<T> result = new ArrayList<>(size());
-		for (Queue<T> q : data.values()) {
-			while (!q.isEmpty()) {
-				T t = q.remove();
-				if (t != null) result.add(t);
+		List<T> result = new ArrayList<>(size);
+		for (int number = 0; number < queues.length; number++) {
+			ArrayDeque<T> q = queues[number];
+			if (q != null) {
+				result.addAll(q);
+				q.clear();
+				counts[number] = 0;
 			}
 		}
+		size = 0;
 		return result;
 	}
-
-	private Queue<T> getBucket(int number) {
-		Integer n = Integer.valueOf(number);
-		if (data.containsKey(n)) {
-			return data.get(n);
-		} else {
-			Queue<T> q = new ArrayDeque<>();
-			data.put(n, q);
-			return q;
-		}
-	}
 }
@@ -141,12 +141,13 @@ class OptimizingFixedSectionCompacter<T> implements SingleUseCompacter<T> {
 	 * @param n the number of sections to fill
 	 */
 	private boolean tryFlush(int n) {
-		List<Integer> sizes = unplaced.numbers();
-		List<Integer> sizeComb = combiner.combineToSum(n * sectionSize, sizes);
+		int[] sizeComb = combiner.combineCounts(n * sectionSize, unplaced.counts());
 		if (sizeComb != null) {
-			List<Element> toBePlaced = new ArrayList<>(sizeComb.size());
-			for (int length : sizeComb) {
-				toBePlaced.add(unplaced.nextInQueue(length));
+			List<Element> toBePlaced = new ArrayList<>();
+			for (int length = 0; length < sizeComb.length; length++) {
+				for (int i = 0; i < sizeComb[length]; i++) {
+					toBePlaced.add(unplaced.nextInQueue(length));
+				}
 			}
 			Collections.sort(toBePlaced);
 			sections.add(toBePlaced);
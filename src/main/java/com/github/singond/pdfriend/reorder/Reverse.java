@@ -1,6 +1,5 @@
 package com.github.singond.pdfriend.reorder;
 
-import java.util.Collections;
 import java.util.List;
 
 import com.github.singond.pdfriend.document.VirtualDocument;
@@ -15,14 +14,15 @@ public class Reverse implements Reorderable {
 		return NAME;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The pages of the source are not copied: the output is a reversed
+	 * view of the source documents.
+	 */
 	@Override
 	public VirtualDocument reorder(List<VirtualDocument> sources) {
-		VirtualDocument.Builder output = new VirtualDocument.Builder();
-		for (VirtualDocument doc : sources) {
-			output.appendDocument(doc);
-		}
-		Collections.reverse(output.getPages());
-		return output.build();
+		return VirtualDocument.concatenate(sources).reverse();
 	}
 
 }
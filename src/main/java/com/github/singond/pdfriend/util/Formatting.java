@@ -35,9 +35,10 @@ public class Formatting {
 			sb.append("[");
 			int index = 0;
 			for (T element : coll) {
-				if (index++ < limit) {
-					sb.append(element).append(", ");
+				if (index++ >= limit) {
+					break;
 				}
+				sb.append(element).append(", ");
 			}
 			sb.setLength(sb.length() - 2);
 			sb.append("... (" + (coll.size() - limit) + " more)]");
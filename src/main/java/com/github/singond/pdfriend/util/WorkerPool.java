@@ -0,0 +1,111 @@
+package com.github.singond.pdfriend.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * The pool of threads used for parallel operations on documents.
+ * <p>
+ * A parallel stream runs in the fork-join pool from which it is started,
+ * so starting it through {@link #invoke} limits its parallelism to the
+ * size of this pool rather than that of the common pool.
+ * The pool has as many threads as there are processors, unless set
+ * otherwise with {@link #setThreads}.
+ * <p>
+ * Short documents are better processed in the calling thread, because
+ * the overhead of splitting the work would outweigh the gain.
+ * All operations decide this by {@link #shouldSplit} and
+ * {@link #splits}, so that they share a single threshold.
+ *
+ * @author Singon
+ */
+public final class WorkerPool {
+
+	/** The pool, created when first needed */
+	private static ForkJoinPool pool;
+
+	/** The minimum number of pages worth processing on a separate thread */
+	private static final int MIN_PAGES_PER_TASK = 32;
+
+	private WorkerPool() {
+		throw new UnsupportedOperationException("Non-instantiable class");
+	}
+
+	/**
+	 * Returns the pool for parallel operations.
+	 *
+	 * @return the pool
+	 */
+	public static synchronized ForkJoinPool get() {
+		if (pool == null) {
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return pool;
+	}
+
+	/**
+	 * Replaces the pool with a new pool of the given number of threads.
+	 * Operations already running in the old pool are finished there.
+	 *
+	 * @param threads the number of threads
+	 */
+	public static synchronized void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException
+					("The number of threads must be positive: " + threads);
+		}
+		if (pool != null) {
+			if (pool.getParallelism() == threads) {
+				return;
+			}
+			pool.shutdown();
+		}
+		pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Checks whether processing the given number of pages is worth
+	 * splitting among several threads.
+	 *
+	 * @param pages the number of pages to be processed
+	 * @return true if the pages can be split into at least two parts
+	 *         which are worth processing on separate threads
+	 */
+	public static boolean shouldSplit(int pages) {
+		return pages >= 2 * MIN_PAGES_PER_TASK;
+	}
+
+	/**
+	 * Returns the number of parts into which processing the given number
+	 * of pages should be split, so that each part is worth processing
+	 * on a separate thread.
+	 *
+	 * @param pages the number of pages to be processed
+	 * @param maxParts the maximum number of parts
+	 * @return the number of parts, at least one
+	 */
+	public static int splits(int pages, int maxParts) {
+		return Math.max(1, Math.min(maxParts, pages / MIN_PAGES_PER_TASK));
+	}
+
+	/**
+	 * Performs the given task in the pool and returns its result.
+	 * Any parallel stream evaluated by the task runs in the pool.
+	 * If the calling thread already belongs to the pool, the task is
+	 * performed directly.
+	 *
+	 * @param <T> the type of the result
+	 * @param task the task to be performed
+	 * @return the result of {@code task}
+	 */
+	public static <T> T invoke(Supplier<T> task) {
+		ForkJoinPool p = get();
+		if (ForkJoinTask.getPool() == p) {
+			return task.get();
+		}
+		Callable<T> callable = task::get;
+		return p.submit(callable).join();
+	}
+}
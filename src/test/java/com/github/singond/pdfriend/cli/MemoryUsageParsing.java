@@ -0,0 +1,39 @@
+package com.github.singond.pdfriend.cli;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.beust.jcommander.ParameterException;
+import com.github.singond.pdfriend.format.MemoryUsage;
+
+public class MemoryUsageParsing {
+
+	private final MemoryUsageConverter converter = new MemoryUsageConverter();
+
+	@Test
+	public void namedModes() {
+		assertEquals(MemoryUsage.Mode.MAIN_MEMORY, converter.convert("memory").getMode());
+		assertEquals(MemoryUsage.Mode.TEMP_FILE, converter.convert("file").getMode());
+	}
+
+	@Test
+	public void mixedMode() {
+		MemoryUsage usage = converter.convert("512M");
+		assertEquals(MemoryUsage.Mode.MIXED, usage.getMode());
+		assertEquals(512L * 1024 * 1024, usage.getMaxMainMemoryBytes());
+		assertEquals(2048, converter.convert("2k").getMaxMainMemoryBytes());
+		assertEquals(3L << 30, converter.convert("3GB").getMaxMainMemoryBytes());
+		assertEquals(1000, converter.convert("1000").getMaxMainMemoryBytes());
+	}
+
+	@Test(expected=ParameterException.class)
+	public void invalidValue() {
+		converter.convert("plenty");
+	}
+
+	@Test(expected=ParameterException.class)
+	public void overflowingValue() {
+		converter.convert("10000000000G");
+	}
+}
@@ -0,0 +1,124 @@
+package com.github.singond.pdfriend.document;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.singond.pdfriend.book.GridPage;
+import com.github.singond.pdfriend.book.MultiPage.PageletView;
+
+public class ContentTransforms {
+
+	private static class Dummy extends AbstractContent {
+		/** The number of times a matrix has been applied to a dummy */
+		static int moves = 0;
+
+		Dummy(AffineTransform position) {
+			super(position);
+		}
+
+		@Override
+		public Dummy atPosition(AffineTransform position) {
+			moves++;
+			return new Dummy(position);
+		}
+
+		@Override
+		public <T, P, E extends Throwable> T invite(ContentVisitor<T, P, E> visitor, P param) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Test
+	public void sameAsPreConcatenate() {
+		Random random = new Random(42);
+		AffineTransform start = new AffineTransform(0.5, 0.2, -0.3, 1.5, 12, -7);
+		List<Content> contents = Arrays.asList(
+				new Dummy(new AffineTransform()), new Dummy(start));
+		ContentsMovable movable = new ContentsMovable(ContentTable.of(contents));
+		AffineTransform expected = new AffineTransform(start);
+
+		for (int i = 0; i < 20; i++) {
+			AffineTransform tr = new AffineTransform(random.nextDouble(),
+					random.nextDouble(), random.nextDouble(), random.nextDouble(),
+					100 * random.nextDouble(), 100 * random.nextDouble());
+			switch (i % 4) {
+				case 0: tr = AffineTransform.getTranslateInstance(3.5, -1); break;
+				case 1: tr = AffineTransform.getQuadrantRotateInstance(1); break;
+				case 2: tr = AffineTransform.getScaleInstance(0.7, 0.7); break;
+				default: break;
+			}
+			movable.transform(tr);
+			expected.preConcatenate(tr);
+		}
+		assertMatrix(expected, movable.get().get(1).getPosition());
+	}
+
+	@Test
+	public void mergedContentsKeepTheirTransforms() {
+		AffineTransform pos = AffineTransform.getTranslateInstance(5, 5);
+		TransformableContents first = new VirtualPage(10, 10, new Dummy(pos)).getContents();
+		TransformableContents second = new VirtualPage(10, 10, new Dummy(pos)).getContents();
+		AffineTransform rotate = AffineTransform.getQuadrantRotateInstance(1);
+		AffineTransform shift = AffineTransform.getTranslateInstance(100, 0);
+		first.transform(rotate);
+		second.transform(shift);
+		TransformableContents merged = ContentsFactory.merge(Arrays.<Contents>asList(first, second));
+		merged.transform(shift);
+
+		AffineTransform expectedFirst = new AffineTransform(pos);
+		expectedFirst.preConcatenate(rotate);
+		expectedFirst.preConcatenate(shift);
+		AffineTransform expectedSecond = new AffineTransform(pos);
+		expectedSecond.preConcatenate(shift);
+		expectedSecond.preConcatenate(shift);
+		List<Content> result = new ArrayList<>(merged.get());
+		assertMatrix(expectedFirst, result.get(0).getPosition());
+		assertMatrix(expectedSecond, result.get(1).getPosition());
+	}
+
+	private static void assertMatrix(AffineTransform expected, AffineTransform actual) {
+		double[] e = new double[6];
+		double[] a = new double[6];
+		expected.getMatrix(e);
+		actual.getMatrix(a);
+		assertArrayEquals(e, a, 1e-9);
+	}
+
+	@Test
+	public void untransformedContentIsNotCopied() {
+		Content content = new Dummy(new AffineTransform());
+		TransformableContents contents = new VirtualPage(10, 10, content).getContents();
+		contents.transform(new AffineTransform());
+		assertSame(content, contents.get().iterator().next());
+	}
+
+	@Test
+	public void nestedImpositionMovesEachElementOnce() {
+		AffineTransform pos = AffineTransform.getTranslateInstance(1, 2);
+		VirtualPage page = new VirtualPage(10, 10, Arrays.<Content>asList(
+				new Dummy(pos), new Dummy(pos), new Dummy(pos)));
+		int elements = 3;
+		int depth = 4;
+		Dummy.moves = 0;
+		for (int i = 0; i < depth; i++) {
+			GridPage grid = new GridPage(2, 2, page.getWidth(), page.getHeight(), 1, 1);
+			for (PageletView pg : grid.pagelets()) {
+				pg.setSource(page);
+			}
+			page = grid.render();
+			elements *= 4;
+		}
+		assertEquals(0, Dummy.moves);
+		assertEquals(elements, page.getContentStatic().get().size());
+		assertEquals(elements, Dummy.moves);
+	}
+}
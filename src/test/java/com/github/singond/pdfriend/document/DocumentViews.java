@@ -0,0 +1,73 @@
+package com.github.singond.pdfriend.document;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DocumentViews {
+
+	private static List<VirtualPage> pages(int count, double width) {
+		List<VirtualPage> pages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			pages.add(new VirtualPage(width + i, 100));
+		}
+		return pages;
+	}
+
+	@Test
+	public void viewsMatchCopies() {
+		List<VirtualPage> a = pages(5, 10);
+		List<VirtualPage> b = pages(0, 20);
+		List<VirtualPage> c = pages(7, 30);
+		VirtualDocument doc = VirtualDocument.concatenate(new VirtualDocument(a),
+				new VirtualDocument(b), new VirtualDocument(c));
+
+		List<VirtualPage> expected = new ArrayList<>();
+		expected.addAll(a);
+		expected.addAll(b);
+		expected.addAll(c);
+		assertPages(expected, doc);
+
+		List<VirtualPage> reversed = new ArrayList<>(expected);
+		Collections.reverse(reversed);
+		assertPages(reversed, doc.reverse());
+		assertPages(expected, doc.reverse().reverse());
+
+		for (int first = 1; first <= expected.size(); first++) {
+			for (int last = first - 1; last <= expected.size(); last++) {
+				assertPages(expected.subList(first - 1, last), doc.subDocument(first, last));
+				assertPages(reversed.subList(first - 1, last),
+						doc.reverse().subDocument(first, last));
+			}
+		}
+		assertPages(expected.subList(3, 8), doc.subDocument(2, 10).subDocument(3, 7));
+	}
+
+	@Test
+	public void concatenatedViews() {
+		VirtualDocument doc = new VirtualDocument(pages(6, 10));
+		VirtualDocument joined = VirtualDocument.concatenate(
+				doc.subDocument(4, 6), doc.reverse(), doc.subDocument(1, 2));
+		List<VirtualPage> p = doc.getPages();
+		List<VirtualPage> expected = Arrays.asList(p.get(3), p.get(4), p.get(5),
+				p.get(5), p.get(4), p.get(3), p.get(2), p.get(1), p.get(0),
+				p.get(0), p.get(1));
+		assertPages(expected, joined);
+		assertPages(expected.subList(2, 10), joined.subDocument(3, 10));
+	}
+
+	private static void assertPages(List<VirtualPage> expected, VirtualDocument doc) {
+		assertEquals(expected, doc.getPages());
+		assertEquals(expected, new ArrayList<>(doc.getPages()));
+		PageGeometry geometry = doc.getGeometry();
+		assertEquals(expected.size(), geometry.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getWidth(), geometry.getWidth(i), 1e-9);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.github.singond.pdfriend.document;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PageSizeHistogram {
+
+	@Test
+	public void countsDistinctSizes() {
+		List<VirtualPage> pages = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			pages.add(new VirtualPage(595, 842));
+			if (i % 3 == 0) {
+				pages.add(new VirtualPage(842, 595));
+			}
+		}
+		pages.add(new VirtualPage(612, 792));
+		VirtualDocument doc = new VirtualDocument(pages);
+
+		PageSizes sizes = doc.getPageSizes();
+		assertEquals(3, sizes.size());
+		assertEquals(pages.size(), sizes.totalPages());
+		assertEquals(595, sizes.getWidth(0), 0);
+		assertEquals(10, sizes.getCount(0));
+		assertEquals(842, sizes.getWidth(1), 0);
+		assertEquals(4, sizes.getCount(1));
+		assertEquals(792, sizes.getHeight(2), 0);
+		assertEquals(1, sizes.getCount(2));
+		assertArrayEquals(new double[] {842, 842}, doc.maxPageDimensions(), 0);
+		assertSame(sizes, doc.getPageSizes());
+	}
+
+	@Test
+	public void emptyDocument() {
+		VirtualDocument doc = new VirtualDocument(new ArrayList<>());
+		assertEquals(0, doc.getPageSizes().size());
+		assertEquals(0, doc.getPageSizes().totalPages());
+	}
+}
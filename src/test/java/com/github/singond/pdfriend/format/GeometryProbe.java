@@ -0,0 +1,45 @@
+package com.github.singond.pdfriend.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.singond.pdfriend.document.PageGeometry;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.io.InputFactory;
+
+public class GeometryProbe {
+
+	private final Path letter = Paths.get("test/lorem-letter.pdf");
+	private final Path letterBg = Paths.get("test/lorem-letter-bg.pdf");
+
+	@Test
+	public void probeAgreesWithPages() throws ParsingException, IOException {
+		List<Path> files = Arrays.asList(letter, letterBg);
+		try (ParsingManager mgr = new ParsingManager()) {
+			List<VirtualDocument> docs = mgr.parseToDocuments(InputFactory.of(files));
+			for (VirtualDocument doc : docs) {
+				assertAgrees(doc);
+			}
+			assertAgrees(VirtualDocument.concatenate(docs));
+		}
+	}
+
+	private void assertAgrees(VirtualDocument doc) {
+		PageGeometry geometry = doc.getGeometry();
+		assertEquals(doc.getLength(), geometry.size());
+		int i = 0;
+		for (VirtualPage page : doc) {
+			assertEquals(page.getWidth(), geometry.getWidth(i), 1e-6);
+			assertEquals(page.getHeight(), geometry.getHeight(i), 1e-6);
+			i++;
+		}
+	}
+}
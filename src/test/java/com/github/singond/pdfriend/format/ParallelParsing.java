@@ -0,0 +1,36 @@
+package com.github.singond.pdfriend.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.io.InputFactory;
+
+public class ParallelParsing {
+
+	private final Path letter = Paths.get("test/lorem-letter.pdf");
+	private final Path letterBg = Paths.get("test/lorem-letter-bg.pdf");
+
+	@Test
+	public void preservesInputOrder() throws ParsingException, IOException {
+		List<Path> files = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			files.add(i % 3 == 0 ? letterBg : letter);
+		}
+		try (ParsingManager mgr = new ParsingManager(MemoryUsage.mainMemoryOnly(), 4)) {
+			List<VirtualDocument> docs = mgr.parseToDocuments(InputFactory.of(files));
+			assertEquals(files.size(), docs.size());
+			for (int i = 0; i < files.size(); i++) {
+				String expected = files.get(i).getFileName().toString();
+				assertEquals("Document at position " + i, expected, docs.get(i).name());
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.github.singond.pdfriend.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.junit.Test;
+
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+import com.github.singond.pdfriend.format.process.PDFRenderer;
+import com.github.singond.pdfriend.io.InputFactory;
+
+public class ParallelRendering {
+
+	private final Path letter = Paths.get("test/lorem-letter.pdf");
+
+	@Test
+	public void repeatedPageIsImportedOnce() throws ParsingException, RenderingException, IOException {
+		try (ParsingManager mgr = new ParsingManager()) {
+			VirtualDocument source = mgr.parseToDocuments(
+					InputFactory.of(Collections.singletonList(letter))).get(0);
+			VirtualPage page = source.getPage(1);
+			// Long enough to be split into several ranges
+			int length = 256;
+			List<VirtualPage> pages = Collections.nCopies(length, page);
+
+			PDFRenderer renderer = new PDFRenderer(MemoryUsage.mainMemoryOnly(), 4);
+			try (PDDocument doc = renderer.render(new VirtualDocument(pages))) {
+				assertEquals(length, doc.getNumberOfPages());
+				Set<COSBase> forms = Collections.newSetFromMap(new IdentityHashMap<>());
+				for (PDPage p : doc.getPages()) {
+					PDResources resources = p.getResources();
+					COSDictionary xobjects = (COSDictionary) resources.getCOSObject()
+							.getDictionaryObject(COSName.XOBJECT);
+					for (COSName name : resources.getXObjectNames()) {
+						forms.add(xobjects.getDictionaryObject(name));
+					}
+				}
+				assertEquals(1, forms.size());
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.github.singond.pdfriend.imposition;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.singond.geometry.plane.Line;
+import com.github.singond.geometry.plane.Point;
+import com.github.singond.pdfriend.book.FlipDirection;
+import com.github.singond.pdfriend.book.ImpositionPlan;
+import com.github.singond.pdfriend.book.Leaf;
+import com.github.singond.pdfriend.book.Signature;
+import com.github.singond.pdfriend.book.Stack;
+import com.github.singond.pdfriend.book.Volume;
+import com.github.singond.pdfriend.document.AbstractContent;
+import com.github.singond.pdfriend.document.Content;
+import com.github.singond.pdfriend.document.ContentVisitor;
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+
+public class ImpositionPlans {
+
+	private static final double WIDTH = 612;
+	private static final double HEIGHT = 792;
+
+	/** A piece of content which remembers the page it came from */
+	private static class Dummy extends AbstractContent {
+		private final int page;
+
+		Dummy(int page, AffineTransform position) {
+			super(position);
+			this.page = page;
+		}
+
+		@Override
+		public Dummy atPosition(AffineTransform position) {
+			return new Dummy(page, position);
+		}
+
+		@Override
+		public <T, P, E extends Throwable> T invite(ContentVisitor<T, P, E> visitor, P param) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static Stack foldedStack() {
+		Stack stack = new Stack(2 * WIDTH, 2 * HEIGHT);
+		stack.performManipulation(new Stack.Gather(2));
+		stack.performManipulation(new Stack.Fold(new Line(new Point(0, HEIGHT),
+				new Point(1, HEIGHT)), Stack.Fold.Direction.UNDER));
+		stack.performManipulation(new Stack.Fold(new Line(new Point(WIDTH, 0),
+				new Point(WIDTH, 1)), Stack.Fold.Direction.OVER));
+		return stack;
+	}
+
+	private static VirtualDocument source(int length) {
+		List<VirtualPage> pages = new ArrayList<>();
+		for (int i = 0; i < length; i++) {
+			pages.add(new VirtualPage(WIDTH, HEIGHT,
+					new Dummy(i, AffineTransform.getTranslateInstance(i, 0))));
+		}
+		return new VirtualDocument(pages);
+	}
+
+	@Test
+	public void planMatchesVolume() {
+		Stack stack = foldedStack();
+		Leaf leaf = new Leaf(WIDTH, HEIGHT);
+		ImpositionPlan plan = ImpositionPlan.of(stack.copy().buildSignature(leaf));
+		assertEquals(16, plan.pagesPerSignature());
+		assertEquals(2, plan.sheetsPerSignature());
+
+		// Long enough for the volume to be rendered in parallel
+		int length = 600;
+		VirtualDocument source = source(length);
+		Volume volume = new Volume();
+		int pageNumber = 1;
+		for (int i = 0; i < plan.signatureCount(length); i++) {
+			Signature signature = stack.copy().buildSignature(leaf);
+			pageNumber = signature.numberPagesFrom(pageNumber);
+			volume.add(signature);
+		}
+		PageFillers.fillSequentially(volume.pages().iterator(), source.iterator());
+
+		for (FlipDirection flip : FlipDirection.values()) {
+			VirtualDocument expected = volume.renderDocument(new Volume.RenderingSettings(flip));
+			VirtualDocument actual = plan.render(length, i -> source.getPage(i + 1), flip);
+			assertEquals(expected.getLength(), actual.getLength());
+			assertEquals(expected.getLength(), plan.outputLength(length));
+			for (int p = 0; p < expected.getLength(); p++) {
+				assertPage(expected.getPages().get(p), actual.getPages().get(p));
+				assertEquals(expected.getPages().get(p).getWidth(),
+						actual.getGeometry().getWidth(p), 0);
+			}
+			for (int page = 0; page < length; page++) {
+				int output = plan.outputPageOf(page);
+				assertEquals(1, positionsOf(page, actual.getPages().get(output)).size());
+			}
+		}
+	}
+
+	@Test
+	public void blankCopiesMatchFreshSignatures() {
+		Stack stack = foldedStack();
+		Leaf leaf = new Leaf(WIDTH, HEIGHT);
+		Signature template = stack.copy().buildSignature(leaf);
+		int length = 40;
+		Volume fresh = new Volume();
+		Volume copied = new Volume();
+		int freshNumber = 1;
+		int copiedNumber = 1;
+		for (int i = 0; i < 3; i++) {
+			Signature signature = stack.copy().buildSignature(leaf);
+			freshNumber = signature.numberPagesFrom(freshNumber);
+			fresh.add(signature);
+			Signature copy = template.cloneBlank();
+			copiedNumber = copy.numberPagesFrom(copiedNumber);
+			copied.add(copy);
+		}
+		assertEquals(freshNumber, copiedNumber);
+		PageFillers.fillSequentially(fresh.pages().iterator(), source(length).iterator());
+		PageFillers.fillSequentially(copied.pages().iterator(), source(length).iterator());
+
+		VirtualDocument expected = fresh.renderDocument();
+		VirtualDocument actual = copied.renderDocument();
+		assertEquals(expected.getLength(), actual.getLength());
+		for (int p = 0; p < expected.getLength(); p++) {
+			assertPage(expected.getPages().get(p), actual.getPages().get(p));
+		}
+	}
+
+	private static void assertPage(VirtualPage expected, VirtualPage actual) {
+		assertEquals(expected.getWidth(), actual.getWidth(), 0);
+		assertEquals(expected.getHeight(), actual.getHeight(), 0);
+		List<Content> e = new ArrayList<>(expected.getContentStatic().get());
+		List<Content> a = new ArrayList<>(actual.getContentStatic().get());
+		assertEquals(e.size(), a.size());
+		for (int i = 0; i < e.size(); i++) {
+			assertEquals(((Dummy) e.get(i)).page, ((Dummy) a.get(i)).page);
+			double[] em = new double[6];
+			double[] am = new double[6];
+			e.get(i).getPosition().getMatrix(em);
+			a.get(i).getPosition().getMatrix(am);
+			assertArrayEquals(em, am, 0);
+		}
+	}
+
+	private static List<Content> positionsOf(int page, VirtualPage output) {
+		List<Content> result = new ArrayList<>();
+		for (Content c : output.getContentStatic().get()) {
+			if (((Dummy) c).page == page) {
+				result.add(c);
+			}
+		}
+		return result;
+	}
+}
@@ -36,4 +36,19 @@ public class PageRepetition {
 		Assert.assertEquals(pagesExpected, pageNumber);
 	}
 
+	@Test
+	public void randomAccessMatchesIteration() throws ParsingException, IOException {
+		@SuppressWarnings("resource")
+		VirtualDocument inDoc = new PDFParser().parseDocument(Files.newInputStream(input));
+
+		PageSource pageSource = PageSource.of(inDoc)
+		                                  .setPageRepeated(3)
+		                                  .setDocRepeated(2)
+		                                  .build();
+		int index = 0;
+		for (VirtualPage page : pageSource) {
+			Assert.assertSame("Page at index " + index, page, pageSource.get(index++));
+		}
+		Assert.assertEquals(pageSource.size(), index);
+	}
 }
@@ -0,0 +1,121 @@
+package com.github.singond.pdfriend.imposition;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.singond.geometry.plane.Line;
+import com.github.singond.geometry.plane.Point;
+import com.github.singond.pdfriend.book.ImpositionPlan;
+import com.github.singond.pdfriend.book.Leaf;
+import com.github.singond.pdfriend.book.Stack;
+
+public class PlanCaching {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ImpositionPlan plan() {
+		Stack stack = new Stack(1224, 792);
+		stack.performManipulation(new Stack.Fold(new Line(new Point(612, 0),
+				new Point(612, 1)), Stack.Fold.Direction.UNDER));
+		return ImpositionPlan.of(stack.buildSignature(new Leaf(612, 792)));
+	}
+
+	private static Supplier<ImpositionPlan> counting(AtomicInteger counter) {
+		return () -> {
+			counter.incrementAndGet();
+			return plan();
+		};
+	}
+
+	@Test
+	public void planIsComputedOnce() throws IOException {
+		Path dir = folder.newFolder().toPath();
+		AtomicInteger planned = new AtomicInteger();
+		ImpositionPlan first = new PlanCache(dir, 4).get("key", counting(planned));
+		ImpositionPlan second = new PlanCache(dir, 4).get("key", counting(planned));
+		assertEquals(1, planned.get());
+		assertEquals(first.pagesPerSignature(), second.pagesPerSignature());
+		assertEquals(first.outputLength(13), second.outputLength(13));
+		for (int page = 0; page < 13; page++) {
+			assertEquals(first.outputPageOf(page), second.outputPageOf(page));
+			assertEquals(first.positionOf(page), second.positionOf(page));
+		}
+	}
+
+	@Test
+	public void corruptPlanIsComputedAgain() throws IOException {
+		Path dir = folder.newFolder().toPath();
+		AtomicInteger planned = new AtomicInteger();
+		PlanCache cache = new PlanCache(dir, 4);
+		cache.get("key", counting(planned));
+		try (Stream<Path> files = Files.list(dir)) {
+			Files.write(files.findFirst().get(), new byte[] {1, 2, 3});
+		}
+		cache.get("key", counting(planned));
+		assertEquals(2, planned.get());
+	}
+
+	@Test
+	public void inconsistentPlanIsComputedAgain() throws IOException {
+		Path dir = folder.newFolder().toPath();
+		AtomicInteger planned = new AtomicInteger();
+		PlanCache cache = new PlanCache(dir, 4);
+		cache.get("key", counting(planned));
+		try (Stream<Path> files = Files.list(dir)) {
+			Path file = files.findFirst().get();
+			ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+			// Header, lengths, dimensions of the only sheet and three side starts
+			int firstEntry = 4 * 4 + 2 * 8 + 3 * 4;
+			data.putInt(firstEntry, plan().pagesPerSignature());
+			Files.write(file, data.array());
+		}
+		ImpositionPlan plan = cache.get("key", counting(planned));
+		assertEquals(2, planned.get());
+		assertEquals(plan().positionOf(0), plan.positionOf(0));
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() throws IOException {
+		Path dir = folder.newFolder().toPath();
+		AtomicInteger planned = new AtomicInteger();
+		PlanCache cache = new PlanCache(dir, 2);
+		cache.get("a", counting(planned));
+		cache.get("b", counting(planned));
+		// Age both plans, so that "b" is the least recently used after "a" is read
+		try (Stream<Path> files = Files.list(dir)) {
+			files.forEach(p -> {
+				try {
+					Files.setLastModifiedTime(p, FileTime.fromMillis(
+							Files.getLastModifiedTime(p).toMillis() - 60_000));
+				} catch (IOException e) {
+					throw new AssertionError(e);
+				}
+			});
+		}
+		cache.get("a", counting(planned));
+		cache.get("c", counting(planned));
+		assertEquals(3, planned.get());
+
+		cache.get("a", counting(planned));
+		cache.get("c", counting(planned));
+		assertEquals(3, planned.get());
+		cache.get("b", counting(planned));
+		assertEquals(4, planned.get());
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(2, files.count());
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.github.singond.pdfriend.imposition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.singond.pdfriend.document.VirtualDocument;
+import com.github.singond.pdfriend.document.VirtualPage;
+
+public class PreprocessorPages {
+
+	private static VirtualDocument document(int pages) {
+		List<VirtualPage> list = new ArrayList<>();
+		for (int i = 0; i < pages; i++) {
+			list.add(new VirtualPage(595, 842));
+		}
+		return new VirtualDocument(list);
+	}
+
+	@Test
+	public void membershipIsByIdentity() {
+		VirtualDocument first = document(3);
+		VirtualDocument second = document(2);
+		Preprocessor preprocessor = new Preprocessor(
+				Arrays.asList(first, second), new Preprocessor.Settings());
+
+		assertTrue(preprocessor.hasPage(first.getPage(2)));
+		assertTrue(preprocessor.hasPage(second.getPage(1)));
+		assertFalse(preprocessor.hasPage(new VirtualPage(second.getPage(1))));
+		assertTrue(preprocessor.hasAllPages(VirtualDocument.concatenate(second, first)));
+		assertFalse(preprocessor.hasAllPages(document(1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownDocumentIsNotProcessed() {
+		VirtualDocument known = document(3);
+		Preprocessor preprocessor = new Preprocessor(
+				Arrays.asList(known), new Preprocessor.Settings());
+		assertEquals(3, preprocessor.processDocument(known).getLength());
+		preprocessor.processDocument(document(3));
+	}
+}
@@ -1,10 +1,14 @@
 package com.github.singond.pdfriend.reorder;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -45,4 +49,66 @@ public class CoinChangeProblem {
 		unsolvable(6, 1, 3);
 		unsolvable(2, 1, 3);
 	}
+
+	@Test
+	public void sameSolutionAsBacktracking() {
+		Random random = new Random(7);
+		for (int round = 0; round < 200; round++) {
+			List<Integer> values = new ArrayList<>();
+			int count = random.nextInt(12);
+			for (int i = 0; i < count; i++) {
+				values.add(random.nextInt(20));
+			}
+			int sum = random.nextInt(60);
+			List<Integer> sorted = new ArrayList<>(values);
+			Collections.sort(sorted, Collections.reverseOrder());
+			assertEquals("Picking from " + values + " to a total of " + sum,
+					backtrack(sum, sorted), combiner.combineToSum(sum, values));
+		}
+	}
+
+	@Test
+	public void manyValues() {
+		Integer[] values = new Integer[500];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 4 * (i % 37) + 2;
+		}
+		solvable(4000, values);
+		// All values are even
+		unsolvable(4001, values);
+	}
+
+	@Test
+	public void pickingFromCounts() {
+		// Three 2s, one 3 and two 5s
+		int[] counts = {0, 0, 3, 1, 0, 2};
+		assertArrayEquals(new int[] {0, 0, 1, 0, 0, 2},
+				combiner.combineCounts(12, counts));
+		assertArrayEquals(new int[] {0, 0, 2, 0, 0, 1},
+				combiner.combineCounts(9, counts));
+		assertNull(combiner.combineCounts(1, counts));
+		assertNull(combiner.combineCounts(20, counts));
+	}
+
+	/**
+	 * Finds the solution by trying the largest values first.
+	 * Requires {@code values} to be sorted in descending order.
+	 */
+	private static List<Integer> backtrack(int sum, List<Integer> values) {
+		if (sum == 0) {
+			return new ArrayList<>();
+		} else if (sum < 0) {
+			return null;
+		}
+		for (int i = 0; i < values.size(); i++) {
+			List<Integer> rest = new ArrayList<>(values);
+			int val = rest.remove(i);
+			List<Integer> rem = backtrack(sum - val, rest);
+			if (rem != null) {
+				rem.add(val);
+				return rem;
+			}
+		}
+		return null;
+	}
 }
@@ -1,10 +1,13 @@
 package com.github.singond.pdfriend.reorder;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -41,6 +44,55 @@ public class CompacterTest {
 //				2, 2, 1, 3, 1, 1, 2, 2, 3, 3);
 		fixedNoRemainder(4, optimizingFixedSect(4),
 				2, 2, 1, 3, 1, 1, 2, 2, 3, 3);
+		fixedNoRemainder(4, branchAndBound(4),
+				2, 2, 1, 3, 1, 1, 2, 2, 3, 3);
+	}
+
+	@Test
+	public void branchAndBoundNotWorse() {
+		Random random = new Random(7);
+		for (int run = 0; run < 50; run++) {
+			int sectSize = 2 + random.nextInt(15);
+			List<Integer> sizes = new ArrayList<>();
+			for (int i = 1 + random.nextInt(12); i > 0; i--) {
+				sizes.add(random.nextInt(2 * sectSize));
+			}
+			SingleUseCompacter<Integer> optimizing = optimizingFixedSect(sectSize);
+			SingleUseCompacter<Integer> searching = branchAndBound(sectSize);
+			optimizing.process(sizes);
+			List<Integer> compacted = searching.process(sizes);
+
+			List<Integer> expected = new ArrayList<>(sizes);
+			List<Integer> actual = new ArrayList<>(compacted);
+			expected.sort(null);
+			actual.sort(null);
+			assertEquals(expected, actual);
+			assertFalse("Worse than the optimizing compacter for " + sizes,
+					searching.splitObjects() > optimizing.splitObjects()
+					|| searching.splitObjects() == optimizing.splitObjects()
+					&& searching.suboptimSplitObjects() > optimizing.suboptimSplitObjects());
+		}
+	}
+
+	@Test
+	public void branchAndBoundKeepsOrder() {
+		BranchAndBoundCompacter<Integer> compacter = branchAndBound(4);
+		List<Integer> sizes = Arrays.asList(1, 3, 2, 2, 4, 1, 1, 2);
+		assertEquals(sizes, compacter.process(sizes));
+		assertEquals(0, compacter.splitObjects());
+		assertEquals(0, compacter.displacement());
+	}
+
+	@Test
+	public void branchAndBoundFindsBest() {
+		// Flushing 1+5 first leaves 3, 1, 3 in the order found by the solver
+		List<Integer> sizes = Arrays.asList(1, 3, 1, 3, 5);
+		SingleUseCompacter<Integer> optimizing = optimizingFixedSect(6);
+		optimizing.process(sizes);
+		assertEquals(1, optimizing.splitObjects());
+		BranchAndBoundCompacter<Integer> compacter = branchAndBound(6);
+		compacter.process(sizes);
+		assertEquals(0, compacter.splitObjects());
 	}
 
 	private static List<Integer> partialSums(List<Integer> sequence) {
@@ -57,7 +109,11 @@ public class CompacterTest {
 		return new GreedyFixedSectionCompacter<>(sectSize, e -> e.intValue());
 	}
 
-	private static Compacter<Integer> optimizingFixedSect(int sectSize) {
+	private static BranchAndBoundCompacter<Integer> branchAndBound(int sectSize) {
+		return new BranchAndBoundCompacter<>(sectSize, e -> e.intValue(), 10_000);
+	}
+
+	private static SingleUseCompacter<Integer> optimizingFixedSect(int sectSize) {
 		return new OptimizingFixedSectionCompacter<>(sectSize, e -> e.intValue());
 	}
 }
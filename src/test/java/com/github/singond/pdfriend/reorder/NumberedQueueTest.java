@@ -1,5 +1,6 @@
 package com.github.singond.pdfriend.reorder;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
@@ -29,4 +30,21 @@ public class NumberedQueueTest {
 		List<Integer> expected = Arrays.asList(1, 2, 6, 6);
 		assertEquals("Wrong numbers returned", expected, numbers);
 	}
+
+	@Test
+	public void countsTest() {
+		nq.add("A", 1);
+		nq.add("F", 6);
+		nq.add("G", 6);
+		nq.add("B", 2);
+		assertEquals(4, nq.size());
+		assertArrayEquals(new int[] {0, 1, 1, 0, 0, 0, 2},
+				Arrays.copyOf(nq.counts(), 7));
+		assertEquals("F", nq.nextInQueue(6));
+		assertEquals(3, nq.size());
+		assertEquals(1, nq.queueSize(6));
+		assertEquals(Arrays.asList("A", "B", "G"), nq.getAllAscending());
+		assertEquals(0, nq.size());
+		assertEquals(0, nq.queueSize(6));
+	}
 }